@@ -1,7 +1,6 @@
 package com.dipika.kalakriti2.config;
 
 import java.io.IOException;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
@@ -10,8 +9,8 @@ import org.springframework.security.web.authentication.SimpleUrlAuthenticationSu
 import org.springframework.stereotype.Component;
 
 import com.dipika.kalakriti2.entity.UserEntity;
-import com.dipika.kalakriti2.repository.UserRepository;
 import com.dipika.kalakriti2.service.JwtUtil;
+import com.dipika.kalakriti2.service.UserRegistrationService;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,7 +20,7 @@ import jakarta.servlet.http.HttpServletResponse;
 public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserRegistrationService userRegistrationService;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -34,23 +33,11 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
         String email = oAuth2User.getAttribute("email");
         String name = oAuth2User.getAttribute("name");
 
-        // Check if user exists
-        Optional<UserEntity> userOptional = userRepository.findByEmail(email);
-        
-        if (userOptional.isEmpty()) {
-            // Create new user
-            UserEntity newUser = new UserEntity();
-            newUser.setEmail(email);
-            newUser.setName(name);
-            newUser.setPassword(""); // No password for OAuth users
-            newUser.setRole("USER");
-            // Set provider if you have such a field, e.g. newUser.setProvider("GOOGLE");
-            
-            userRepository.save(newUser);
-        }
+        // Existing user, or a new one without password (a taken name gets a numbered variant)
+        UserEntity user = userRegistrationService.findOrCreateOAuthUser(email, name);
 
-        // Generate JWT
-        String token = jwtUtil.generateToken(email);
+        // Generate JWT (with user id and role claims)
+        String token = jwtUtil.generateToken(user);
 
         // Check for returnTo parameter
         String returnTo = request.getParameter("returnTo");
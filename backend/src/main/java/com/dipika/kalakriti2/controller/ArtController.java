@@ -6,12 +6,13 @@ import com.dipika.kalakriti2.service.ArtService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/art")
-@CrossOrigin(origins = "*")  // allows requests from any frontend
+@CrossOrigin(originPatterns = "*")  // allows requests from any frontend (a plain "*" origin is rejected with credentials)
 public class ArtController {
 
     @Autowired
@@ -19,30 +20,42 @@ public class ArtController {
 
     // 🔹 Get all artworks
     @GetMapping
-    public ResponseEntity<List<Art>> getAllArts() {
+    public ResponseEntity<List<Art>> getAllArts(WebRequest request) {
+        String etag = artService.getArtEtag();
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
         List<Art> arts = artService.getAllArts();
         if (arts.isEmpty()) {
             return ResponseEntity.noContent().build(); // 204 No Content if list empty
         }
-        return ResponseEntity.ok(arts); // 200 OK with list
+        return ResponseEntity.ok().eTag(etag).body(arts); // 200 OK with list
     }
 
     // 🔹 Get artwork by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Art> getArtById(@PathVariable Long id) {
+    public ResponseEntity<Art> getArtById(@PathVariable Long id, WebRequest request) {
+        String etag = artService.getArtEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         return artService.getArtById(id)
-                .map(ResponseEntity::ok)
+                .map(art -> ResponseEntity.ok().eTag(etag).body(art))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // 🔹 Get artworks by category
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Art>> getArtsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<Art>> getArtsByCategory(@PathVariable String category, WebRequest request) {
+        String etag = artService.getArtEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<Art> arts = artService.getArtsByCategory(category);
         if (arts.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(arts);
+        return ResponseEntity.ok().eTag(etag).body(arts);
     }
 
     // 🔹 Add a new artwork (optional)
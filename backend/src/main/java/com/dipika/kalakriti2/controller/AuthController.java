@@ -13,7 +13,11 @@ import com.dipika.kalakriti2.repository.UserRepository;
 import com.dipika.kalakriti2.dto.GoogleAuth;
 import com.dipika.kalakriti2.service.GoogleAuthService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.dipika.kalakriti2.service.LoginThrottle;
+import com.dipika.kalakriti2.service.PasswordHashingService;
+import com.dipika.kalakriti2.service.UserRegistrationService;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 
 
@@ -32,7 +36,13 @@ public class AuthController {
     private com.dipika.kalakriti2.service.JwtUtil jwtUtil;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private UserRegistrationService userRegistrationService;
 
     // ---------------- Google Login ----------------
     @PostMapping("/google")
@@ -44,21 +54,10 @@ public class AuthController {
         String picture = (String) payload.get("picture");
         String googleId = payload.getSubject();
 
-        // Check if user exists
-        Optional<UserEntity> userOpt = userRepository.findByEmail(email);
-        UserEntity user;
-        if(userOpt.isPresent()) {
-            user = userOpt.get();
-        } else {
-            // Save new user
-            user = new UserEntity();
-            user.setName(name);
-            user.setEmail(email);
-            user.setRole("USER"); // default role
-            userRepository.save(user);
-        }
+        // Existing user, or a new one (a taken name gets a numbered variant)
+        UserEntity user = userRegistrationService.findOrCreateOAuthUser(email, name);
 
-        String token = jwtUtil.generateToken(email);
+        String token = jwtUtil.generateToken(user);
 
         Map<String, Object> response = new HashMap<>();
         response.put("email", email);
@@ -75,15 +74,20 @@ public class AuthController {
     
     // ---------------- Standard Login ----------------
     @PostMapping("/login")
-    public org.springframework.http.ResponseEntity<?> login(@RequestBody com.dipika.kalakriti2.dto.LoginRequest request) {
+    public org.springframework.http.ResponseEntity<?> login(@RequestBody com.dipika.kalakriti2.dto.LoginRequest request,
+                                                            HttpServletRequest httpRequest) {
 
-        System.out.println("Login Request received: " + request.getEmail());
-        System.out.println("Password received: " + request.getPassword());
+        // ✅ Throttle per account and per IP before doing any (expensive) password check
+        if (!loginThrottle.allowLogin(request.getEmail(), httpRequest.getRemoteAddr())) {
+            return org.springframework.http.ResponseEntity.status(429)
+                    .body(Map.of("message", "Too many login attempts, please try again later"));
+        }
 
 
         // ✅ ADMIN LOGIN (Hardcoded Check)
         if ("info@kalakriti.com".equals(request.getEmail()) && "kalakriti".equals(request.getPassword())) {
-            String token = jwtUtil.generateToken("info@kalakriti.com"); 
+            loginThrottle.loginSucceeded(request.getEmail());
+            String token = jwtUtil.generateToken("info@kalakriti.com", 0L, "ADMIN");
 
             return org.springframework.http.ResponseEntity.ok(Map.of(
                     "role", "ADMIN",
@@ -98,8 +102,16 @@ public class AuthController {
         if (userOpt.isPresent()) {
             UserEntity user = userOpt.get();
 
-            if (user.getPassword() != null && passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-                String token = jwtUtil.generateToken(user.getEmail());
+            boolean passwordOk;
+            try {
+                passwordOk = passwordHashingService.matches(request.getPassword(), user.getPassword());
+            } catch (IllegalStateException e) {
+                return org.springframework.http.ResponseEntity.status(503).body(Map.of("message", e.getMessage()));
+            }
+
+            if (passwordOk) {
+                loginThrottle.loginSucceeded(request.getEmail());
+                String token = jwtUtil.generateToken(user);
 
                 return org.springframework.http.ResponseEntity.ok(Map.of(
                         "role", (user.getRole() != null ? user.getRole() : "USER"), // Handle null role
@@ -121,14 +133,31 @@ public class AuthController {
 
     // ---------------- Signup ----------------
     @PostMapping("/signup")
-    public org.springframework.http.ResponseEntity<?> registerUser(@RequestBody UserEntity user) {
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
-            return org.springframework.http.ResponseEntity.badRequest().body(Map.of("message", "Email is already taken!"));
+    public org.springframework.http.ResponseEntity<?> registerUser(@RequestBody UserEntity user,
+                                                                   HttpServletRequest httpRequest) {
+        if (!loginThrottle.allowSignup(httpRequest.getRemoteAddr())) {
+            return org.springframework.http.ResponseEntity.status(429)
+                    .body(Map.of("message", "Too many attempts, please try again later"));
+        }
+        // Nothing to hash: reject before a hashing worker is taken
+        if (user.getEmail() == null || user.getEmail().isBlank()
+                || user.getPassword() == null || user.getPassword().isBlank()) {
+            return org.springframework.http.ResponseEntity.badRequest()
+                    .body(Map.of("message", "Email and password are required"));
+        }
+        try {
+            user.setPassword(passwordHashingService.encode(user.getPassword()));
+        } catch (IllegalStateException e) {
+            return org.springframework.http.ResponseEntity.status(503).body(Map.of("message", e.getMessage()));
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setRole("USER"); // Default role
-        userRepository.save(user);
+        // One INSERT; duplicate email / name come back from the unique constraints
+        try {
+            userRegistrationService.register(user);
+        } catch (IllegalArgumentException e) {
+            String message = e.getMessage().startsWith("Email") ? "Email is already taken!" : "Username is already taken!";
+            return org.springframework.http.ResponseEntity.status(409).body(Map.of("message", message));
+        }
 
         return org.springframework.http.ResponseEntity.ok(Map.of("message", "User registered successfully!"));
     }
@@ -139,8 +168,10 @@ public class AuthController {
     public org.springframework.http.ResponseEntity<?> getCurrentUser(org.springframework.security.core.Authentication authentication) {
         String email = authentication.getName();
 
-        // Handle Hardcoded Admin
-        if ("info@kalakriti.com".equals(email)) {
+        // Handle Hardcoded Admin (role comes from the token, no lookup needed)
+        if ("info@kalakriti.com".equals(email)
+                || (authentication.getPrincipal() instanceof com.dipika.kalakriti2.dto.AuthPrincipal principal
+                    && principal.isAdmin() && Long.valueOf(0).equals(principal.getUserId()))) {
              return org.springframework.http.ResponseEntity.ok(Map.of(
                 "name", "Admin",
                 "email", "info@kalakriti.com",
@@ -1,27 +1,35 @@
 package com.dipika.kalakriti2.controller;
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 
+import com.dipika.kalakriti2.dto.AuthPrincipal;
 import com.dipika.kalakriti2.dto.ContactAdminDto;
 import com.dipika.kalakriti2.dto.ReplyDto;
 import com.dipika.kalakriti2.entity.ContactMessage;
 import com.dipika.kalakriti2.repository.ContactRepository;
+import com.dipika.kalakriti2.service.ContactBlobStore;
 import com.dipika.kalakriti2.service.ContactService;
 import com.dipika.kalakriti2.service.EmailService;
+import com.dipika.kalakriti2.service.ImageDerivativeService;
 
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @RestController
 @RequestMapping("/api/admin")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"}, allowCredentials = "true")
 public class ContactController {
 
+    // Upper bound for one bulk reply request
+    private static final int MAX_BULK_REPLIES = 200;
+
     @Autowired
     private ContactRepository contactRepository;
 
@@ -31,7 +39,11 @@ public class ContactController {
     @Autowired
     private EmailService emailService;
 
-    private final String UPLOAD_DIR = System.getProperty("user.dir") + "/uploads/contact/";
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ContactBlobStore contactBlobStore;
 
 
     @PostMapping(consumes = "multipart/form-data")
@@ -43,60 +55,38 @@ public class ContactController {
             @RequestParam String message,
             @RequestParam(required = false) List<MultipartFile> images
     ) {
-        try {
-            System.out.println("🔍 Contact form submission received");
-            System.out.println("Name: " + name);
-            System.out.println("Email: " + email);
-            System.out.println("Phone: " + phone);
-            System.out.println("Address: " + address);
-            System.out.println("Message: " + message);
-            System.out.println("Images count: " + (images != null ? images.size() : 0));
-            
-            ContactMessage contact = new ContactMessage();
-            contact.setName(name);
-            contact.setEmail(email);
-            contact.setPhone(phone);
-            contact.setAddress(address);
-            contact.setMessage(message);
-
-            List<String> imagePaths = new ArrayList<>();
-            if (images != null && !images.isEmpty()) {
-                System.out.println("📸 Processing " + images.size() + " images");
-            	File uploadDir = new File(UPLOAD_DIR);
-            	if (!uploadDir.exists()) {
-            	    System.out.println("📁 Creating upload directory: " + UPLOAD_DIR);
-            	    uploadDir.mkdirs();
-            	}
-
-            	for (MultipartFile file : images) {
-            	    System.out.println("Processing file: " + file.getOriginalFilename() + " (" + file.getSize() + " bytes)");
-            	    String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-            	    File dest = new File(uploadDir, fileName);
-            	    file.transferTo(dest);
-            	    imagePaths.add(fileName);
-            	    System.out.println("✅ Saved: " + fileName);
-            	}
-            } else {
-                System.out.println("No images to process");
-            }
+        log.info("🔍 Contact form submission from {} with {} image(s)", email, images != null ? images.size() : 0);
+
+        ContactMessage contact = new ContactMessage();
+        contact.setName(name);
+        contact.setEmail(email);
+        contact.setPhone(phone);
+        contact.setAddress(address);
+        contact.setMessage(message);
 
+        // Images are validated and written in parallel; the message is saved only once all landed
+        List<String> imagePaths = new ArrayList<>();
+        try {
+            imagePaths = contactBlobStore.storeAll(images);
             contact.setImages(imagePaths);
-            System.out.println("💾 Saving contact message to database");
             contactRepository.save(contact);
-            System.out.println("✅ Contact message saved successfully");
-
-            return ResponseEntity.ok("Message sent successfully ✅");
-
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (IOException e) {
-            System.err.println("❌ IOException occurred: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Failed to store contact images", e);
             return ResponseEntity.status(500).body("Failed to upload images ❌");
         } catch (Exception e) {
-            System.err.println("❌ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            contactBlobStore.release(imagePaths); // nothing references them now
+            log.error("❌ Failed to save contact message", e);
             return ResponseEntity.status(500).body("Error processing request: " + e.getMessage());
         }
-      
+
+        for (String fileName : imagePaths) {
+            imageDerivativeService.submit(ContactBlobStore.CONTACT_DIR.resolve(fileName)); // thumbnails in the background
+        }
+        log.info("✅ Contact message {} saved with {} image(s)", contact.getId(), imagePaths.size());
+
+        return ResponseEntity.ok("Message sent successfully ✅");
     }
    
  // ✅ PUBLIC / USER CONTACTS
@@ -110,26 +100,40 @@ public class ContactController {
     public List<ContactAdminDto> getAdminContacts() {
         return contactService.getAdminContacts();
     }
- // 🖼️ STATIC IMAGE SERVING (🔥 THIS FIXES IMAGE ISSUE)
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-
-        String uploadPath = "file:" + System.getProperty("user.dir") + "/uploads/";
-
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(uploadPath);
-    }
-    
     @PostMapping("/reply")
     public ResponseEntity<?> replyToContact(@RequestBody ReplyDto dto) {
         try {
             emailService.sendReplyMail(dto.getEmail(), dto.getMessage());
-            return ResponseEntity.ok("Reply mail sent successfully ✅");
+            return ResponseEntity.ok("Reply mail queued successfully ✅");
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(500).body("Failed to send mail ❌");
         }
     }
 
+    // ✅ Reply to a backlog of messages in one request; the outbox sends them over one SMTP connection
+    @PostMapping("/reply/bulk")
+    public ResponseEntity<?> replyToContacts(@RequestBody List<ReplyDto> replies) {
+        if (replies == null || replies.isEmpty()) {
+            return ResponseEntity.badRequest().body("No replies given ❌");
+        }
+        if (replies.size() > MAX_BULK_REPLIES) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BULK_REPLIES + " replies per request ❌");
+        }
+        for (ReplyDto reply : replies) {
+            if (reply.getEmail() == null || reply.getEmail().isBlank() || reply.getMessage() == null) {
+                return ResponseEntity.badRequest().body("Every reply needs an email and a message ❌");
+            }
+        }
+        try {
+            int queued = emailService.sendReplyMails(replies);
+            return ResponseEntity.ok(queued + " reply mails queued successfully ✅");
+        } catch (Exception e) {
+            log.error("❌ Failed to queue bulk replies", e);
+            return ResponseEntity.status(500).body("Failed to send mail ❌");
+        }
+    }
+
     @DeleteMapping("/contacts/{id}")
     public ResponseEntity<?> deleteContact(@PathVariable Long id) {
         try {
@@ -141,9 +145,10 @@ public class ContactController {
     }
 
     // 🎨 Get commissions for a specific user (by email)
+    // The caller's own commissions; the email comes from the JWT (login required, see Webconfig)
     @GetMapping("/my-commissions")
-    public List<ContactMessage> getMyCommissions(@RequestParam String email) {
-        return contactService.getUserCommissions(email);
+    public List<ContactMessage> getMyCommissions(@AuthenticationPrincipal AuthPrincipal principal) {
+        return contactService.getUserCommissions(principal.getEmail());
     }
     
 
@@ -1,9 +1,15 @@
 package com.dipika.kalakriti2.controller;
 
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.dipika.kalakriti2.dto.UploadJobDto;
+import com.dipika.kalakriti2.service.ImageUploadJobService;
 import com.dipika.kalakriti2.utils.UploadToCloud;
 
 @RestController
@@ -12,9 +18,11 @@ import com.dipika.kalakriti2.utils.UploadToCloud;
 public class ImageController {
 
     private final UploadToCloud uploadToCloud;
+    private final ImageUploadJobService uploadJobService;
 
-    public ImageController(UploadToCloud uploadToCloud) {
+    public ImageController(UploadToCloud uploadToCloud, ImageUploadJobService uploadJobService) {
         this.uploadToCloud = uploadToCloud;
+        this.uploadJobService = uploadJobService;
     }
 
     @PostMapping("/upload")
@@ -22,4 +30,34 @@ public class ImageController {
         String imageUrl = uploadToCloud.uploadToCloud(file);
         return ResponseEntity.ok(imageUrl);
     }
+
+    // Queue the upload and return a job id right away; poll /image/jobs/{jobId} for the URL
+    @PostMapping("/upload/async")
+    public ResponseEntity<?> uploadAsync(@RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.accepted().body(uploadJobService.submit(file, null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Queue many gallery images at once (uploaded with bounded concurrency)
+    @PostMapping("/upload/batch")
+    public ResponseEntity<?> uploadBatch(@RequestParam("files") List<MultipartFile> files) {
+        try {
+            return ResponseEntity.accepted().body(uploadJobService.submitAll(files));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<UploadJobDto> getJob(@PathVariable String jobId) {
+        UploadJobDto job = uploadJobService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
 }
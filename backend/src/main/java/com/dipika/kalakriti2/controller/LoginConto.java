@@ -1,10 +1,8 @@
 package com.dipika.kalakriti2.controller;
 
 import java.util.Map;
-import java.util.Optional;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -14,6 +12,11 @@ import org.springframework.web.bind.annotation.RestController;
 import com.dipika.kalakriti2.entity.UserEntity;
 import com.dipika.kalakriti2.repository.UserRepository;
 import com.dipika.kalakriti2.service.JwtUtil;
+import com.dipika.kalakriti2.service.LoginThrottle;
+import com.dipika.kalakriti2.service.PasswordHashingService;
+import com.dipika.kalakriti2.service.UserRegistrationService;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 
 
@@ -23,20 +26,31 @@ import com.dipika.kalakriti2.service.JwtUtil;
 public class LoginConto {
 
     private final UserRepository userRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
+    private final UserRegistrationService userRegistrationService;
     private final JwtUtil jwtUtil;
 
     public LoginConto(UserRepository userRepo,
-                      PasswordEncoder passwordEncoder,
+                      PasswordHashingService passwordHashingService,
+                      LoginThrottle loginThrottle,
+                      UserRegistrationService userRegistrationService,
                       JwtUtil jwtUtil) {
         this.userRepo = userRepo;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottle = loginThrottle;
+        this.userRegistrationService = userRegistrationService;
         this.jwtUtil = jwtUtil;
     }
 
     // ================= REGISTER =================
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody UserEntity user) {
+    public ResponseEntity<?> register(@RequestBody UserEntity user, HttpServletRequest request) {
+
+        if (!loginThrottle.allowSignup(request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", "Too many attempts, please try again later"));
+        }
 
         // basic validation
         if (user.getName() == null || user.getName().trim().isEmpty()
@@ -50,33 +64,30 @@ public class LoginConto {
         String email = user.getEmail().toLowerCase().trim();
         String name = user.getName().trim();
 
-        // email already exists
-        if (userRepo.findByEmail(email).isPresent()) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("error", "Email already exists"));
+        user.setName(name);
+        user.setEmail(email);
+        try {
+            user.setPassword(passwordHashingService.encode(user.getPassword().trim()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage()));
         }
 
-        // username already exists
-        Optional<UserEntity> existingUser =
-                userRepo.findByname(name);
-        if (existingUser.isPresent()) {
+        // One INSERT; duplicate email / name come back from the unique constraints
+        try {
+            userRegistrationService.register(user);
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("error", "Username already exists"));
+                    .body(Map.of("error", e.getMessage()));
         }
 
-        user.setName(name);
-        user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(user.getPassword().trim()));
-
-        userRepo.save(user);
-
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(Map.of("message", "User registered successfully"));
     }
 
     // ================= LOGIN =================
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody UserEntity user) {
+    public ResponseEntity<?> login(@RequestBody UserEntity user, HttpServletRequest request) {
 
         if (user.getEmail() == null || user.getPassword() == null) {
             return ResponseEntity.badRequest()
@@ -86,12 +97,27 @@ public class LoginConto {
         String email = user.getEmail().toLowerCase().trim();
         String password = user.getPassword().trim();
 
+        // ✅ Throttle per account and per IP before doing any (expensive) password check
+        if (!loginThrottle.allowLogin(email, request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", "Too many login attempts, please try again later"));
+        }
+
         return userRepo.findByEmail(email)
                 .map(dbUser -> {
 
-                    if (passwordEncoder.matches(password, dbUser.getPassword())) {
+                    boolean passwordOk;
+                    try {
+                        passwordOk = passwordHashingService.matches(password, dbUser.getPassword());
+                    } catch (IllegalStateException e) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .body(Map.of("error", e.getMessage()));
+                    }
+
+                    if (passwordOk) {
 
-                        String token = jwtUtil.generateToken(dbUser.getEmail());
+                        loginThrottle.loginSucceeded(email);
+                        String token = jwtUtil.generateToken(dbUser);
 
                         return ResponseEntity.ok(
                                 Map.of(
@@ -1,11 +1,19 @@
 package com.dipika.kalakriti2.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import com.dipika.kalakriti2.dto.AuthPrincipal;
 import com.dipika.kalakriti2.entity.Order;
 import com.dipika.kalakriti2.service.OrderService;
 import com.dipika.kalakriti2.service.EmailService;
@@ -16,6 +24,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 
+@Slf4j
 @RestController
 @RequestMapping("/api/orders")
 @CrossOrigin(
@@ -25,6 +34,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class OrderController {
 
+    // Upper bound for one bulk status update
+    private static final int MAX_BULK_ORDERS = 200;
+
     private final OrderService orderService;
     private final EmailService emailService;
     private final PaymentService paymentService;
@@ -38,40 +50,88 @@ public class OrderController {
         
         if (userEmail != null && !userEmail.isEmpty() && !userEmail.equals("customer@example.com")) {
             try {
-                System.out.println("✅ Sending order confirmation email to: " + userEmail);
                 emailService.sendOrderConfirmationEmail(savedOrder, userEmail);
-                System.out.println("✅ Order confirmation email sent successfully to: " + userEmail);
+                log.info("✅ Order confirmation email queued for order #{}", savedOrder.getId());
             } catch (Exception e) {
                 // Log error but don't fail the order
-                System.err.println("❌ Failed to send order confirmation email to " + userEmail + ": " + e.getMessage());
-                e.printStackTrace();
+                log.error("❌ Failed to queue order confirmation email for order #{}", savedOrder.getId(), e);
             }
         } else {
-            System.err.println("⚠️ No valid email address found for order #" + savedOrder.getId() + ". Email not sent.");
+            log.warn("⚠️ No valid email address found for order #{}. Email not sent.", savedOrder.getId());
         }
         
         return ResponseEntity.ok(savedOrder);
     }
     
  // 🔹 Get orders for a specific user
+    // Without "size" the whole history is returned; with "size" one keyset page is returned,
+    // and the next page is requested with the createdAt / id of the last order received.
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getUserOrders(@PathVariable Long userId) {
-        List<Order> orders = orderService.getOrdersByUserId(userId);
+    public ResponseEntity<List<Order>> getUserOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+            @RequestParam(required = false) Long cursorId
+    ) {
+        List<Order> orders = size == null
+                ? orderService.getOrdersByUserId(userId)
+                : orderService.getOrdersByUserId(userId, size, cursorCreatedAt, cursorId);
         return ResponseEntity.ok(orders);
     }
 
+    // 🔹 Orders of the logged-in user (id taken from the JWT, same paging as /user/{userId})
+    @GetMapping("/my")
+    public ResponseEntity<?> getMyOrders(
+            @AuthenticationPrincipal AuthPrincipal principal,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+            @RequestParam(required = false) Long cursorId
+    ) {
+        if (principal == null || principal.getUserId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Login required"));
+        }
+        return getUserOrders(principal.getUserId(), size, cursorCreatedAt, cursorId);
+    }
+
     // 🔹 Update order status (cancel)
     @PutMapping("/user/{orderId}/status")
-    public ResponseEntity<Order> updateOrderStatus(
+    public ResponseEntity<?> updateOrderStatus(
             @PathVariable Long orderId,
             @RequestParam String status
     ) {
-        Order updatedOrder = orderService.updateStatus(orderId, status);
-        return ResponseEntity.ok(updatedOrder);
+        try {
+            return ResponseEntity.ok(orderService.updateStatus(orderId, status.trim().toUpperCase(java.util.Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
+    // 🔹 Admin order list: one keyset page, newest first (default 50, max 200 per page).
+    // Next page: pass the createdAt / id of the last order received as cursorCreatedAt / cursorId.
     @GetMapping("/admin")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<List<Order>> getAllOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam(defaultValue = "" + OrderService.ADMIN_PAGE_SIZE) int size,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+            @RequestParam(required = false) Long cursorId
+    ) {
+        return ResponseEntity.ok(orderService.getAllOrders(status, paymentStatus, size, cursorCreatedAt, cursorId));
+    }
+
+    // 🔹 Export all (filtered) orders as a JSON array, streamed chunk by chunk
+    @GetMapping(value = "/admin/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentStatus
+    ) {
+        StreamingResponseBody body = out -> orderService.exportOrders(status, paymentStatus, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.json\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
     @GetMapping("/admin/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
@@ -82,11 +142,16 @@ public class OrderController {
  
  // ✅ Update order status (Admin)
     @PutMapping("/admin/{orderId}/status")
-    public ResponseEntity<Order> updateStatus(
+    public ResponseEntity<?> updateStatus(
             @PathVariable Long orderId,
             @RequestParam String status
     ) {
-        Order updatedOrder = orderService.updateStatus(orderId, status);
+        Order updatedOrder;
+        try {
+            updatedOrder = orderService.updateStatus(orderId, status.trim().toUpperCase(java.util.Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         
         // Send appropriate email based on status change
         String userEmail = "customer@example.com"; // TODO: Get actual user email
@@ -98,12 +163,63 @@ public class OrderController {
             }
         } catch (Exception e) {
             // Log error but don't fail the status update
-            System.err.println("Failed to send email notification: " + e.getMessage());
+            log.error("❌ Failed to send status email for order #{}", updatedOrder.getId(), e);
         }
         
         return ResponseEntity.ok(updatedOrder);
     }
 
+    // ✅ Update the status of many orders at once (Admin).
+    // Body: { "orderIds": [1, 2, 3], "status": "SHIPPED" }. The shipping / delivery emails are
+    // queued together and the outbox sends them over one SMTP connection.
+    @PutMapping("/admin/status/bulk")
+    public ResponseEntity<?> updateStatusBulk(@RequestBody Map<String, Object> data) {
+        Object rawIds = data.get("orderIds");
+        Object rawStatus = data.get("status");
+        if (!(rawIds instanceof List<?> idList) || idList.isEmpty() || rawStatus == null
+                || rawStatus.toString().isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "orderIds and status are required"));
+        }
+        if (idList.size() > MAX_BULK_ORDERS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_BULK_ORDERS + " orders per request"));
+        }
+
+        List<Long> orderIds = new java.util.ArrayList<>(idList.size());
+        try {
+            for (Object id : idList) {
+                orderIds.add(Long.parseLong(id.toString()));
+            }
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid order id: " + e.getMessage()));
+        }
+
+        String status = rawStatus.toString().trim().toUpperCase(java.util.Locale.ROOT);
+        List<Order> updated;
+        try {
+            updated = orderService.updateStatuses(orderIds, status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        int emailsQueued = 0;
+        try {
+            emailsQueued = emailService.sendStatusUpdateEmails(updated, status);
+        } catch (Exception e) {
+            // Log error but don't fail the status update
+            log.error("❌ Failed to queue bulk status emails", e);
+        }
+
+        List<Long> notFound = new java.util.ArrayList<>(orderIds);
+        updated.forEach(order -> notFound.remove(order.getId()));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", updated.size());
+        response.put("notFound", notFound);
+        response.put("emailsQueued", emailsQueued);
+        return ResponseEntity.ok(response);
+    }
+
     // 💳 Create Razorpay Order (before payment)
     @PostMapping("/create-razorpay-order")
     public ResponseEntity<?> createRazorpayOrder(@RequestBody Map<String, Object> data) {
@@ -185,20 +301,18 @@ public class OrderController {
             String userEmail = savedOrder.getUserEmail();
             if (userEmail != null && !userEmail.isEmpty() && !userEmail.equals("customer@example.com")) {
                 try {
-                    System.out.println("✅ Sending order confirmation email to: " + userEmail);
                     emailService.sendOrderConfirmationEmail(savedOrder, userEmail);
-                    System.out.println("✅ Order confirmation email sent successfully to: " + userEmail);
+                    log.info("✅ Order confirmation email queued for order #{}", savedOrder.getId());
                 } catch (Exception e) {
-                    System.err.println("❌ Failed to send order confirmation email to " + userEmail + ": " + e.getMessage());
-                    e.printStackTrace();
+                    log.error("❌ Failed to queue order confirmation email for order #{}", savedOrder.getId(), e);
                 }
             } else {
-                System.err.println("⚠️ No valid email address found for order #" + savedOrder.getId() + ". Email not sent.");
+                log.warn("⚠️ No valid email address found for order #{}. Email not sent.", savedOrder.getId());
             }
             
             return ResponseEntity.ok(savedOrder);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("❌ Failed to save verified order", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to save order: " + e.getMessage()));
         }
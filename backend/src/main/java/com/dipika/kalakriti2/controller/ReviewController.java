@@ -1,12 +1,17 @@
 package com.dipika.kalakriti2.controller;
 
+import com.dipika.kalakriti2.dto.AuthPrincipal;
 import com.dipika.kalakriti2.dto.ReviewRequest;
 import com.dipika.kalakriti2.dto.ReviewResponse;
+import com.dipika.kalakriti2.entity.UserEntity;
+import com.dipika.kalakriti2.repository.UserRepository;
 import com.dipika.kalakriti2.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -19,11 +24,18 @@ public class ReviewController {
     @Autowired
     private ReviewService reviewService;
 
+    @Autowired
+    private UserRepository userRepository;
+
     // Create a new review
     @PostMapping
     public ResponseEntity<?> createReview(
-            @RequestHeader("userId") Long userId,
+            @AuthenticationPrincipal AuthPrincipal principal,
             @RequestBody ReviewRequest request) {
+        Long userId = callerId(principal);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Login required"));
+        }
         try {
             ReviewResponse review = reviewService.createReview(userId, request);
             return ResponseEntity.status(HttpStatus.CREATED).body(review);
@@ -37,9 +49,14 @@ public class ReviewController {
 
     // Get all reviews for a specific artwork
     @GetMapping("/service/{serviceId}")
-    public ResponseEntity<List<ReviewResponse>> getReviewsByServiceId(@PathVariable Long serviceId) {
+    public ResponseEntity<List<ReviewResponse>> getReviewsByServiceId(@PathVariable Long serviceId,
+                                                                      WebRequest request) {
+        String etag = reviewService.getReviewsEtag(serviceId);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
         List<ReviewResponse> reviews = reviewService.getReviewsByServiceId(serviceId);
-        return ResponseEntity.ok(reviews);
+        return ResponseEntity.ok().eTag(etag).body(reviews);
     }
 
     // Get all reviews by a specific user
@@ -51,9 +68,25 @@ public class ReviewController {
 
     // Get review statistics for an artwork
     @GetMapping("/service/{serviceId}/stats")
-    public ResponseEntity<Map<String, Object>> getReviewStats(@PathVariable Long serviceId) {
+    public ResponseEntity<Map<String, Object>> getReviewStats(@PathVariable Long serviceId, WebRequest request) {
+        String etag = reviewService.getReviewsEtag(serviceId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Map<String, Object> stats = reviewService.getReviewStats(serviceId);
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(etag).body(stats);
+    }
+
+    // Get review statistics for many artworks (e.g. a catalog grid) in one call
+    // GET /api/reviews/stats?serviceIds=1,2,3
+    @GetMapping("/stats")
+    public ResponseEntity<?> getReviewStatsBatch(@RequestParam List<Long> serviceIds) {
+        try {
+            Map<Long, Map<String, Object>> stats = reviewService.getReviewStats(serviceIds);
+            return ResponseEntity.ok(stats);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     // Mark review as helpful
@@ -81,9 +114,13 @@ public class ReviewController {
     // Update a review
     @PutMapping("/{reviewId}")
     public ResponseEntity<?> updateReview(
-            @RequestHeader("userId") Long userId,
+            @AuthenticationPrincipal AuthPrincipal principal,
             @PathVariable Long reviewId,
             @RequestBody ReviewRequest request) {
+        Long userId = callerId(principal);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Login required"));
+        }
         try {
             ReviewResponse review = reviewService.updateReview(userId, reviewId, request);
             return ResponseEntity.ok(review);
@@ -95,8 +132,12 @@ public class ReviewController {
     // Delete a review
     @DeleteMapping("/{reviewId}")
     public ResponseEntity<?> deleteReview(
-            @RequestHeader("userId") Long userId,
+            @AuthenticationPrincipal AuthPrincipal principal,
             @PathVariable Long reviewId) {
+        Long userId = callerId(principal);
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Login required"));
+        }
         try {
             reviewService.deleteReview(userId, reviewId);
             return ResponseEntity.ok(Map.of("message", "Review deleted successfully"));
@@ -105,10 +146,29 @@ public class ReviewController {
         }
     }
 
+    // Recompute all rating summaries from the reviews table (ADMIN only, see Webconfig)
+    @PostMapping("/summary/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSummaries() {
+        int artworks = reviewService.rebuildReviewSummaries();
+        return ResponseEntity.ok(Map.of("message", "Review summaries rebuilt", "artworks", artworks));
+    }
+
     // Get all reviews (for admin)
     @GetMapping("/all")
     public ResponseEntity<List<ReviewResponse>> getAllReviews() {
         List<ReviewResponse> reviews = reviewService.getAllReviews();
         return ResponseEntity.ok(reviews);
     }
+
+    // The caller's user id from the JWT. Tokens issued before the uid claim existed carry only
+    // the email, so it is looked up by that. Without a token: null (401).
+    private Long callerId(AuthPrincipal principal) {
+        if (principal == null) {
+            return null;
+        }
+        if (principal.getUserId() != null) {
+            return principal.getUserId();
+        }
+        return userRepository.findByEmail(principal.getEmail()).map(UserEntity::getId).orElse(null);
+    }
 }
@@ -1,14 +1,19 @@
 
 package com.dipika.kalakriti2.controller;
 
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.dipika.kalakriti2.dto.UploadJobDto;
 import com.dipika.kalakriti2.entity.ServiceItem;
+import com.dipika.kalakriti2.service.CatalogCache;
+import com.dipika.kalakriti2.service.ImageUploadJobService;
 import com.dipika.kalakriti2.service.ServiceItemService;
 import com.dipika.kalakriti2.utils.UploadToCloud;
 
@@ -23,22 +28,54 @@ public class ServiceController {
     @Autowired
     private UploadToCloud uploadToCloud;
 
-    // GET all services
+    @Autowired
+    private ImageUploadJobService uploadJobService;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    // GET all services (served from the catalog cache as ready-made JSON)
+    // Unchanged catalog + If-None-Match -> 304 without a body
     @GetMapping
-    public List<ServiceItem> getAllServices() {
-        return service.getAllServices();
+    public ResponseEntity<byte[]> getAllServices(WebRequest request) {
+        String etag = service.getAllServicesEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return json(etag, service.getAllServicesJson());
     }
 
     // GET services by category
     @GetMapping("/category/{category}")
-    public List<ServiceItem> getByCategory(@PathVariable String category) {
-        return service.getByCategory(category);
+    public ResponseEntity<byte[]> getByCategory(@PathVariable String category, WebRequest request) {
+        String etag = service.getByCategoryEtag(category);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return json(etag, service.getByCategoryJson(category));
     }
 
     // GET service by ID
     @GetMapping("/{id}")
-    public ServiceItem getServiceById(@PathVariable Long id) {
-        return service.getServiceById(id);
+    public ResponseEntity<byte[]> getServiceById(@PathVariable Long id, WebRequest request) {
+        String etag = service.getServiceByIdEtag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return json(etag, service.getServiceByIdJson(id));
+    }
+
+    // GET catalog cache hit / miss metrics
+    @GetMapping("/cache/stats")
+    public Map<String, Object> cacheStats() {
+        return catalogCache.stats();
+    }
+
+    private ResponseEntity<byte[]> json(String etag, byte[] body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     // DELETE service by ID
@@ -59,7 +96,7 @@ public class ServiceController {
     // Accept JSON with image URL already uploaded
     // ================= Add Service (Multipart) =================
     @PostMapping("/addservice")
-    public ServiceItem addService(
+    public ResponseEntity<ServiceItem> addService(
             @RequestParam("name") String name,
             @RequestParam("category") String category,
             @RequestParam("price") String price,
@@ -75,12 +112,22 @@ public class ServiceController {
              // item.setDescription(description); 
         }
 
-        if (image != null && !image.isEmpty()) {
-            String imageUrl = uploadToCloud.uploadToCloud(image);
-            item.setImage(imageUrl);
+        ServiceItem saved = service.save(item);
+        if (image == null || image.isEmpty()) {
+            return ResponseEntity.ok(saved);
         }
 
-        return service.save(item);
+        // Image goes up in the background; the item's image URL is filled in when it is done
+        try {
+            UploadJobDto job = uploadJobService.submit(image, saved.getServiceId());
+            return ResponseEntity.ok()
+                    .header("X-Upload-Job-Id", job.getJobId())
+                    .body(saved);
+        } catch (IllegalStateException e) {
+            // Upload queue is full: fall back to uploading in this request
+            saved.setImage(uploadToCloud.uploadToCloud(image));
+            return ResponseEntity.ok(service.save(saved));
+        }
     }
 }
 
@@ -0,0 +1,265 @@
+package com.dipika.kalakriti2.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.UriUtils;
+
+import com.dipika.kalakriti2.utils.ImageType;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves files under uploads/ (contact images, derivatives).
+ * - Bodies go out through Tomcat sendfile when the connector supports it (kernel copies the
+ *   file straight to the socket), otherwise through FileChannel.transferTo.
+ * - Single byte ranges (Range / If-Range) are honoured; multi-range requests get the full file.
+ * - ETags are cached per file and only recomputed when size or mtime change. For content-hash
+ *   file names (64 hex chars) the hash is the ETag and the response is cacheable forever.
+ * - The Content-Type is the image format detected from the file's magic bytes, not the name;
+ *   anything that is not a JPEG/PNG/GIF/WebP goes out as an octet-stream attachment.
+ */
+@RestController
+public class UploadsController {
+
+    private static final Path UPLOAD_ROOT = Paths.get(System.getProperty("user.dir"), "uploads").toAbsolutePath().normalize();
+
+    // <sha256>.<ext> or <sha256>-<width>.<ext>
+    private static final Pattern CONTENT_HASH_NAME = Pattern.compile("^([0-9a-f]{64})(-\\d+)?\\.[A-Za-z0-9]+$");
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "public, max-age=3600";
+
+    // Below this, a plain copy is cheaper than handing the file to the sendfile poller
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+    private static final int MAX_CACHED_FILES = 10_000;
+
+    private final Map<Path, FileInfo> fileInfos = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, FileInfo> eldest) {
+                    return size() > MAX_CACHED_FILES;
+                }
+            });
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String pathWithinMapping = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        // The mapped path is still URL-encoded ("download%20(19).jpg")
+        String relativePath = UriUtils.decode(pathMatcher.extractPathWithinPattern("/uploads/**", pathWithinMapping),
+                StandardCharsets.UTF_8);
+        Path file = resolve(relativePath);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        FileInfo info = fileInfo(file, attributes);
+
+        response.setHeader(HttpHeaders.ETAG, info.etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, info.lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, info.immutable ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (!info.image) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+        }
+
+        if (notModified(request, info)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = info.size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeApplies(request, info)) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            if (matcher.matches()) {
+                long[] bounds = parseRange(matcher.group(1), matcher.group(2), info.size);
+                if (bounds == null) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + info.size);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + info.size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(info.contentType);
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length <= 0) {
+            return;
+        }
+
+        if (length >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
+        }
+    }
+
+    // Regular file inside uploads/, or null (also rejects ../ escapes)
+    private Path resolve(String relativePath) {
+        if (relativePath == null || relativePath.isEmpty()) {
+            return null;
+        }
+        Path file = UPLOAD_ROOT.resolve(relativePath).normalize();
+        if (!file.startsWith(UPLOAD_ROOT) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        return file;
+    }
+
+    private FileInfo fileInfo(Path file, BasicFileAttributes attributes) throws IOException {
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        FileInfo cached = fileInfos.get(file);
+        if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            return cached;
+        }
+
+        Matcher hashName = CONTENT_HASH_NAME.matcher(file.getFileName().toString());
+        boolean immutable = hashName.matches();
+        String etag = immutable
+                ? "\"" + hashName.group(1) + (hashName.group(2) != null ? hashName.group(2) : "") + "\""
+                : "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        ImageType type = detectType(file);
+        FileInfo info = new FileInfo(size, lastModified, etag, immutable,
+                type != null ? type.getContentType() : "application/octet-stream", type != null);
+        fileInfos.put(file, info);
+        return info;
+    }
+
+    private static ImageType detectType(Path file) throws IOException {
+        byte[] head = new byte[ImageType.MAGIC_BYTES];
+        try (InputStream in = Files.newInputStream(file)) {
+            return ImageType.detect(head, in.readNBytes(head, 0, head.length));
+        }
+    }
+
+    private boolean notModified(HttpServletRequest request, FileInfo info) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(info.etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && info.lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // If-Range: only send a part when the client's copy is still current
+    private boolean rangeApplies(HttpServletRequest request, FileInfo info) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(info.etag);
+        }
+        try {
+            return info.lastModified / 1000 <= request.getDateHeader(HttpHeaders.IF_RANGE) / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // {start, end} inclusive, or null when the range can't be satisfied
+    private static long[] parseRange(String from, String to, long size) {
+        try {
+            if (from.isEmpty()) {
+                if (to.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(to); // last N bytes
+                if (suffix == 0 || size == 0) {
+                    return null;
+                }
+                return new long[] {Math.max(0, size - suffix), size - 1};
+            }
+            long start = Long.parseLong(from);
+            long end = to.isEmpty() ? size - 1 : Math.min(Long.parseLong(to), size - 1);
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class FileInfo {
+        final long size;
+        final long lastModified;
+        final String etag;
+        final boolean immutable;
+        final String contentType;
+        final boolean image;
+
+        FileInfo(long size, long lastModified, String etag, boolean immutable, String contentType, boolean image) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.immutable = immutable;
+            this.contentType = contentType;
+            this.image = image;
+        }
+    }
+}
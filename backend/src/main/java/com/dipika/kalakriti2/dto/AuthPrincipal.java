@@ -0,0 +1,45 @@
+package com.dipika.kalakriti2.dto;
+
+import java.security.Principal;
+
+// Caller identity taken from the JWT claims (set by JwtFilter, no database lookup).
+// getName() is the email, so authentication.getName() keeps working as before.
+public class AuthPrincipal implements Principal {
+
+    private final Long userId;
+    private final String email;
+    private final String role;
+
+    public AuthPrincipal(Long userId, String email, String role) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+    }
+
+    // null for tokens issued before the uid claim existed
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equalsIgnoreCase(role);
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
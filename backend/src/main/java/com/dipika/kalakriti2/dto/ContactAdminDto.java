@@ -11,6 +11,7 @@ public class ContactAdminDto {
     private String message;
     private java.util.List<String> images; // Changed to List
     private java.time.LocalDateTime createdAt; // Added
+    private java.util.Map<String, java.util.Map<String, String>> imageSrcsets; // image -> "300w" -> URL
 	public Long getId() {
 		return id;
 	}
@@ -59,6 +60,12 @@ public class ContactAdminDto {
     public void setCreatedAt(java.time.LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    public java.util.Map<String, java.util.Map<String, String>> getImageSrcsets() {
+        return imageSrcsets;
+    }
+    public void setImageSrcsets(java.util.Map<String, java.util.Map<String, String>> imageSrcsets) {
+        this.imageSrcsets = imageSrcsets;
+    }
     
     
 }
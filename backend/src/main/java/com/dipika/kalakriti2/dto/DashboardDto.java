@@ -1,6 +1,7 @@
 	package com.dipika.kalakriti2.dto;
 
 import java.util.List;
+import java.util.Map;
 
 import com.dipika.kalakriti2.entity.ContactMessage;
 import com.dipika.kalakriti2.entity.Order;
@@ -15,14 +16,19 @@ import lombok.NoArgsConstructor;
 public class DashboardDto {
 
 	
-	public DashboardDto(long totalOrders2, double totalRevenue2, long totalUsers2, List<Order> recentOrders2) {
-		// TODO Auto-generated constructor stub
+	public DashboardDto(long totalOrders, double totalRevenue, long totalUsers, List<Order> recentOrders) {
+		this.totalOrders = totalOrders;
+		this.totalRevenue = totalRevenue;
+		this.totalUsers = totalUsers;
+		this.recentOrders = recentOrders;
 	}
 	private long totalOrders;
     private double totalRevenue;
     private long totalUsers;
     private List<Order> recentOrders;
 	private List<ContactMessage> recentContacts;
+	private Map<String, Long> ordersByStatus;
+	private Map<String, Double> revenueByStatus;
     
     
 	public long getTotalOrders() {
@@ -57,5 +63,18 @@ public class DashboardDto {
 	    public void setRecentContacts(List<ContactMessage> recentContacts) {
 	        this.recentContacts = recentContacts;
 	    }
+
+	public Map<String, Long> getOrdersByStatus() {
+		return ordersByStatus;
+	}
+	public void setOrdersByStatus(Map<String, Long> ordersByStatus) {
+		this.ordersByStatus = ordersByStatus;
+	}
+	public Map<String, Double> getRevenueByStatus() {
+		return revenueByStatus;
+	}
+	public void setRevenueByStatus(Map<String, Double> revenueByStatus) {
+		this.revenueByStatus = revenueByStatus;
+	}
     
 }
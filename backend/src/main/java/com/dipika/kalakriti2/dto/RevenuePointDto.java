@@ -0,0 +1,61 @@
+package com.dipika.kalakriti2.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One point of the dashboard revenue / orders chart
+public class RevenuePointDto {
+    private LocalDateTime bucketStart;
+    private long orderCount;
+    private double revenue;
+    private long itemsSold;
+    private Map<String, Double> categoryRevenue = new LinkedHashMap<>();
+
+    public RevenuePointDto() {}
+
+    public RevenuePointDto(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getItemsSold() {
+        return itemsSold;
+    }
+
+    public void setItemsSold(long itemsSold) {
+        this.itemsSold = itemsSold;
+    }
+
+    public Map<String, Double> getCategoryRevenue() {
+        return categoryRevenue;
+    }
+
+    public void setCategoryRevenue(Map<String, Double> categoryRevenue) {
+        this.categoryRevenue = categoryRevenue;
+    }
+}
@@ -2,6 +2,8 @@ package com.dipika.kalakriti2.dto;
 
 import java.time.LocalDateTime;
 
+import com.dipika.kalakriti2.utils.ImageSrcset;
+
 public class ReviewResponse {
     private Long id;
     private Long userId;
@@ -90,6 +92,11 @@ public class ReviewResponse {
         this.reviewImage = reviewImage;
     }
 
+    // Resized variants of the review photo for srcset
+    public java.util.Map<String, String> getReviewImageSrcset() {
+        return ImageSrcset.of(reviewImage);
+    }
+
     public Boolean getVerifiedPurchase() {
         return verifiedPurchase;
     }
@@ -0,0 +1,83 @@
+package com.dipika.kalakriti2.dto;
+
+import java.time.LocalDateTime;
+
+// State of one background image upload (polled through /image/jobs/{id})
+public class UploadJobDto {
+
+    public enum Status { QUEUED, UPLOADING, DONE, FAILED }
+
+    private final String jobId;
+    private final String fileName;
+    private final Long serviceId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    // Written by the upload worker, read by request threads
+    private volatile Status status = Status.QUEUED;
+    private volatile int attempts;
+    private volatile String url;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    public UploadJobDto(String jobId, String fileName, Long serviceId) {
+        this.jobId = jobId;
+        this.fileName = fileName;
+        this.serviceId = serviceId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
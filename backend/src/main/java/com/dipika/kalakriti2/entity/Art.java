@@ -4,6 +4,8 @@ import java.util.List;
 
 import jakarta.persistence.*;
 
+import com.dipika.kalakriti2.utils.ImageSrcset;
+
 @Entity
 @Table(name = "artworks")
 public class Art {
@@ -94,6 +96,11 @@ public class Art {
         this.image = image;
     }
 
+    // Resized variants of the image for srcset (not stored)
+    public java.util.Map<String, String> getImageSrcset() {
+        return ImageSrcset.of(image);
+    }
+
     public List<String> getTags() {
         return tags;
     }
@@ -0,0 +1,68 @@
+package com.dipika.kalakriti2.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// One stored upload file (named after its SHA-256) and how many contact messages use it
+@Entity
+@Table(name = "blob_refs")
+public class BlobRef {
+
+    @Id
+    @Column(length = 64)
+    private String digest;  // hex SHA-256 of the content
+
+    @Column(nullable = false)
+    private String fileName;  // <digest>.<ext> under uploads/contact
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private Long refCount = 0L;
+
+    private LocalDateTime createdAt;
+
+    public BlobRef() {}
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Long getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Long refCount) {
+        this.refCount = refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
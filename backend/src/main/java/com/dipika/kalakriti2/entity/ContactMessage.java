@@ -10,11 +10,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.JoinColumn;
 	
 @Entity
-@Table(name = "contact_messages")
+@Table(name = "contact_messages",
+       indexes = @Index(name = "idx_contact_messages_created", columnList = "created_at"))
 public class ContactMessage {
 
 	
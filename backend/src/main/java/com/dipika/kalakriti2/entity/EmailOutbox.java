@@ -0,0 +1,154 @@
+package com.dipika.kalakriti2.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+// One outgoing email, rendered when it was queued and sent later by EmailOutboxDispatcher
+@Entity
+@Table(name = "email_outbox",
+       indexes = @Index(name = "idx_email_outbox_status_next", columnList = "status, next_attempt_at"))
+public class EmailOutbox {
+
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String DEAD = "DEAD";  // gave up after the last retry
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String toEmail;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false)
+    private String body;
+
+    @Column(nullable = false)
+    private Boolean html = false;
+
+    @Column(nullable = false, length = 16)
+    private String status = PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+
+    public EmailOutbox() {}
+
+    public EmailOutbox(String toEmail, String subject, String body, boolean html) {
+        this.toEmail = toEmail;
+        this.subject = subject;
+        this.body = body;
+        this.html = html;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public Boolean getHtml() {
+        return html;
+    }
+
+    public void setHtml(Boolean html) {
+        this.html = html;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+}
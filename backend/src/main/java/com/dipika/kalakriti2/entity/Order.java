@@ -6,7 +6,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders") // avoid reserved keyword "order"
+@Table(name = "orders", // avoid reserved keyword "order"
+       indexes = {
+           // "My Orders": WHERE user_id = ? ORDER BY created_at DESC, id DESC
+           @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id"),
+           // Admin listing / export: ORDER BY created_at DESC, id DESC (optionally filtered by status)
+           @Index(name = "idx_orders_created", columnList = "created_at, id"),
+           @Index(name = "idx_orders_status_created", columnList = "status, created_at, id")
+       })
 public class Order {
 
     @Id
@@ -33,6 +40,9 @@ public class Order {
 
     private String status;            // PLACED, SHIPPED, DELIVERED, CANCELLED
 
+    @Column(length = 8)
+    private String language;          // email language of the customer (en, mr), set when placed
+
     private LocalDateTime createdAt;
 
     // 🔥 This must be List<OrderItem>, not List<Order>
@@ -83,6 +93,9 @@ public class Order {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
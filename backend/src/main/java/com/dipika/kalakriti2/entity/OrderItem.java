@@ -2,8 +2,11 @@ package com.dipika.kalakriti2.entity;
 
 import jakarta.persistence.*;
 
+import com.dipika.kalakriti2.utils.ImageSrcset;
+
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items",
+       indexes = @Index(name = "idx_order_items_service_order", columnList = "service_id, order_id"))
 public class OrderItem {
 
     @Id
@@ -78,6 +81,11 @@ public class OrderItem {
         this.image = image;
     }
 
+    // Resized variants of the image for srcset (not stored)
+    public java.util.Map<String, String> getImageSrcset() {
+        return ImageSrcset.of(image);
+    }
+
     // getters & setters
     
     
@@ -0,0 +1,61 @@
+package com.dipika.kalakriti2.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Pre-aggregated order stats for one time bucket (hour or day) and one category.
+// category "ALL" holds the totals of the bucket.
+@Entity
+@Table(name = "order_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_order_rollups_bucket",
+               columnNames = {"granularity", "bucket_start", "category"}))
+public class OrderRollup {
+
+    public static final String HOUR = "HOUR";
+    public static final String DAY = "DAY";
+    public static final String ALL_CATEGORIES = "ALL";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 8)
+    private String granularity;     // HOUR, DAY
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(nullable = false)
+    private Double revenue = 0.0;
+
+    @Column(nullable = false)
+    private Long itemsSold = 0L;
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getGranularity() { return granularity; }
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Long getOrderCount() { return orderCount; }
+    public void setOrderCount(Long orderCount) { this.orderCount = orderCount; }
+
+    public Double getRevenue() { return revenue; }
+    public void setRevenue(Double revenue) { this.revenue = revenue; }
+
+    public Long getItemsSold() { return itemsSold; }
+    public void setItemsSold(Long itemsSold) { this.itemsSold = itemsSold; }
+}
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews",
+       indexes = @Index(name = "idx_reviews_service_rating", columnList = "service_id, rating"))
 public class Review {
 
     @Id
@@ -0,0 +1,131 @@
+package com.dipika.kalakriti2.entity;
+
+import jakarta.persistence.*;
+
+// Pre-aggregated rating stats of one artwork, kept in step with the reviews table
+@Entity
+@Table(name = "review_summary")
+public class ReviewSummary {
+
+    @Id
+    private Long serviceId;  // Artwork ID
+
+    @Column(nullable = false)
+    private Long reviewCount = 0L;
+
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    // Rating histogram buckets
+    @Column(nullable = false)
+    private Long oneStar = 0L;
+
+    @Column(nullable = false)
+    private Long twoStar = 0L;
+
+    @Column(nullable = false)
+    private Long threeStar = 0L;
+
+    @Column(nullable = false)
+    private Long fourStar = 0L;
+
+    @Column(nullable = false)
+    private Long fiveStar = 0L;
+
+    public ReviewSummary() {}
+
+    public ReviewSummary(Long serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    // Count of reviews with the given rating (1-5)
+    public Long getStarCount(int rating) {
+        return switch (rating) {
+            case 1 -> oneStar;
+            case 2 -> twoStar;
+            case 3 -> threeStar;
+            case 4 -> fourStar;
+            case 5 -> fiveStar;
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5");
+        };
+    }
+
+    // Add delta reviews with the given rating (1-5)
+    public void addRating(int rating, long delta) {
+        switch (rating) {
+            case 1 -> oneStar += delta;
+            case 2 -> twoStar += delta;
+            case 3 -> threeStar += delta;
+            case 4 -> fourStar += delta;
+            case 5 -> fiveStar += delta;
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        reviewCount += delta;
+        ratingSum += rating * delta;
+    }
+
+    // Getters and Setters
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public void setServiceId(Long serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    public Long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(Long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(Long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public Long getOneStar() {
+        return oneStar;
+    }
+
+    public void setOneStar(Long oneStar) {
+        this.oneStar = oneStar;
+    }
+
+    public Long getTwoStar() {
+        return twoStar;
+    }
+
+    public void setTwoStar(Long twoStar) {
+        this.twoStar = twoStar;
+    }
+
+    public Long getThreeStar() {
+        return threeStar;
+    }
+
+    public void setThreeStar(Long threeStar) {
+        this.threeStar = threeStar;
+    }
+
+    public Long getFourStar() {
+        return fourStar;
+    }
+
+    public void setFourStar(Long fourStar) {
+        this.fourStar = fourStar;
+    }
+
+    public Long getFiveStar() {
+        return fiveStar;
+    }
+
+    public void setFiveStar(Long fiveStar) {
+        this.fiveStar = fiveStar;
+    }
+}
@@ -2,8 +2,11 @@ package com.dipika.kalakriti2.entity;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+import com.dipika.kalakriti2.utils.ImageSrcset;
+
 @Entity
-@Table(name = "services")
+@Table(name = "services",
+       indexes = @Index(name = "idx_services_created", columnList = "created_at"))
 public class ServiceItem {
 
     @Id
@@ -68,6 +71,11 @@ public class ServiceItem {
 		this.image = image;
 	}
 
+	// Resized variants of the image for srcset (not stored)
+	public java.util.Map<String, String> getImageSrcset() {
+		return ImageSrcset.of(image);
+	}
+
 	public String getDescription() {
 		return description;
 	}
@@ -1,13 +1,23 @@
 package com.dipika.kalakriti2.entity;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+       indexes = @Index(name = "idx_users_role_created", columnList = "role, created_at"),
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+           @UniqueConstraint(name = "uk_users_name", columnNames = "name")
+       })
 public class UserEntity {
 
     @Id
@@ -23,6 +33,14 @@ public class UserEntity {
     private String phone;
     private String address;
 
+    // Registration time
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
     
     public UserEntity() {
     }
@@ -90,5 +108,13 @@ public class UserEntity {
     public void setAddress(String address) {
         this.address = address;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
     
 }
@@ -0,0 +1,38 @@
+package com.dipika.kalakriti2.repository;
+
+import com.dipika.kalakriti2.entity.BlobRef;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface BlobRefRepository extends JpaRepository<BlobRef, String> {
+
+    // Take one reference, creating the row for a newly stored blob
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO blob_refs (digest, file_name, size, ref_count, created_at) "
+            + "VALUES (:digest, :fileName, :size, 1, NOW()) "
+            + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1",
+            nativeQuery = true)
+    void acquire(@Param("digest") String digest,
+                 @Param("fileName") String fileName,
+                 @Param("size") long size);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE blob_refs SET ref_count = ref_count - 1 WHERE digest = :digest AND ref_count > 0",
+            nativeQuery = true)
+    int release(@Param("digest") String digest);
+
+    // Drop the row only if nobody took a new reference in the meantime.
+    // Runs after the releasing transaction has committed, so it needs its own.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "DELETE FROM blob_refs WHERE digest = :digest AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("digest") String digest);
+}
@@ -0,0 +1,31 @@
+package com.dipika.kalakriti2.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.dipika.kalakriti2.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Oldest due emails first (served by idx_email_outbox_status_next)
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now "
+            + "ORDER BY e.nextAttemptAt ASC, e.id ASC")
+    List<EmailOutbox> findDue(@Param("status") String status,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+
+    long countByStatus(String status);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.sentAt < :before")
+    int deleteSentBefore(@Param("status") String status, @Param("before") LocalDateTime before);
+}
@@ -5,6 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import com.dipika.kalakriti2.entity.OrderItem;
 
 public interface OrderItemRepository  extends JpaRepository<OrderItem, Long>{
-	
+
+	// ✅ EXISTS check: has this user ever ordered this artwork?
+	// order_items(service_id, order_id) -> orders(id) keeps this an index lookup
+	boolean existsByOrder_UserIdAndServiceId(Long userId, Long serviceId);
 
 }
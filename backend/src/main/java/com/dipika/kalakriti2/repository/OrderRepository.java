@@ -1,10 +1,13 @@
 package com.dipika.kalakriti2.repository;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.dipika.kalakriti2.entity.Order;
 
@@ -15,6 +18,68 @@ List<Order>findByUserId(Long userId);
 double getTotalRevenue();
 
 List<Order> findTop5ByOrderByCreatedAtDesc();
+
+// ✅ Order count and revenue per status in one grouped query (dashboard)
+@Query("SELECT o.status AS status, COUNT(o) AS orderCount, COALESCE(SUM(o.totalPrice), 0) AS revenue "
+        + "FROM Order o GROUP BY o.status")
+List<OrderStatusTotals> getTotalsByStatus();
+
+// ✅ Full order history of one user, items fetched in the same round trip
+@Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items "
+        + "WHERE o.userId = :userId ORDER BY o.createdAt DESC, o.id DESC")
+List<Order> findByUserIdWithItems(@Param("userId") Long userId);
+
+// ✅ Keyset page of a user's order ids (newest first), served by idx_orders_user_created.
+// Pass a null cursor for the first page, then the (createdAt, id) of the last row seen.
+// Only orders with a createdAt; legacy rows without one follow via findUndatedPageIdsByUserId.
+@Query("SELECT o.id FROM Order o WHERE o.userId = :userId AND o.createdAt IS NOT NULL "
+        + "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt "
+        + "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) "
+        + "ORDER BY o.createdAt DESC, o.id DESC")
+List<Long> findPageIdsByUserId(@Param("userId") Long userId,
+                               @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                               @Param("cursorId") Long cursorId,
+                               Pageable pageable);
+
+// ✅ Legacy orders of a user without createdAt, paged on id alone (newest id first)
+@Query("SELECT o.id FROM Order o WHERE o.userId = :userId AND o.createdAt IS NULL "
+        + "AND o.id < :cursorId ORDER BY o.id DESC")
+List<Long> findUndatedPageIdsByUserId(@Param("userId") Long userId,
+                                      @Param("cursorId") Long cursorId,
+                                      Pageable pageable);
+
+// ✅ Keyset page of all order ids (newest first) for the admin panel, optional status filters.
+// Only orders with a createdAt; legacy rows without one follow via findUndatedPageIds.
+@Query("SELECT o.id FROM Order o WHERE o.createdAt IS NOT NULL "
+        + "AND (:status IS NULL OR o.status = :status) "
+        + "AND (:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) "
+        + "AND (:cursorCreatedAt IS NULL OR o.createdAt < :cursorCreatedAt "
+        + "     OR (o.createdAt = :cursorCreatedAt AND o.id < :cursorId)) "
+        + "ORDER BY o.createdAt DESC, o.id DESC")
+List<Long> findPageIds(@Param("status") String status,
+                       @Param("paymentStatus") String paymentStatus,
+                       @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                       @Param("cursorId") Long cursorId,
+                       Pageable pageable);
+
+// ✅ Legacy orders without createdAt, paged on id alone (newest id first)
+@Query("SELECT o.id FROM Order o WHERE o.createdAt IS NULL "
+        + "AND (:status IS NULL OR o.status = :status) "
+        + "AND (:paymentStatus IS NULL OR o.paymentStatus = :paymentStatus) "
+        + "AND o.id < :cursorId ORDER BY o.id DESC")
+List<Long> findUndatedPageIds(@Param("status") String status,
+                              @Param("paymentStatus") String paymentStatus,
+                              @Param("cursorId") Long cursorId,
+                              Pageable pageable);
+
+// ✅ Load a page of orders together with their items (one query, no LIMIT on the fetch join)
+@Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items "
+        + "WHERE o.id IN :ids ORDER BY o.createdAt DESC, o.id DESC")
+List<Order> findAllWithItemsByIdIn(@Param("ids") List<Long> ids);
+
+// ✅ Walk all order ids in ascending order (rollup rebuild)
+@Query("SELECT o.id FROM Order o WHERE o.id > :afterId ORDER BY o.id ASC")
+List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
     
 
 }
@@ -0,0 +1,35 @@
+package com.dipika.kalakriti2.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.dipika.kalakriti2.entity.OrderRollup;
+
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    // Atomically add deltas to one bucket, creating it on first use
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups "
+            + "(granularity, bucket_start, category, order_count, revenue, items_sold) "
+            + "VALUES (:granularity, :bucketStart, :category, :orderCount, :revenue, :itemsSold) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "order_count = order_count + VALUES(order_count), "
+            + "revenue = revenue + VALUES(revenue), "
+            + "items_sold = items_sold + VALUES(items_sold)",
+            nativeQuery = true)
+    void applyDelta(@Param("granularity") String granularity,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("category") String category,
+                    @Param("orderCount") long orderCount,
+                    @Param("revenue") double revenue,
+                    @Param("itemsSold") long itemsSold);
+
+    // All buckets (totals and categories) in [from, to), oldest first
+    List<OrderRollup> findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            String granularity, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,11 @@
+package com.dipika.kalakriti2.repository;
+
+// Projection for "GROUP BY status" order aggregates (dashboard)
+public interface OrderStatusTotals {
+
+    String getStatus();
+
+    Long getOrderCount();
+
+    Double getRevenue();
+}
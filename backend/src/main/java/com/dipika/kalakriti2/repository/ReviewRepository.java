@@ -2,7 +2,9 @@ package com.dipika.kalakriti2.repository;
 
 import com.dipika.kalakriti2.entity.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,13 +22,12 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     // Check if user has already reviewed this artwork
     Optional<Review> findByUserIdAndServiceId(Long userId, Long serviceId);
 
-    // Get average rating for an artwork
-    @Query("SELECT AVG(r.rating) FROM Review r WHERE r.serviceId = :serviceId")
-    Double getAverageRatingByServiceId(Long serviceId);
+    // Atomic vote counters: a single UPDATE, no read-modify-write, no lost increments
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Review r SET r.helpfulCount = r.helpfulCount + 1 WHERE r.id = :reviewId")
+    int incrementHelpfulCount(@Param("reviewId") Long reviewId);
 
-    // Get review count for an artwork
-    Long countByServiceId(Long serviceId);
-
-    // Get reviews by rating for an artwork
-    List<Review> findByServiceIdAndRatingOrderByCreatedAtDesc(Long serviceId, Integer rating);
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Review r SET r.notHelpfulCount = r.notHelpfulCount + 1 WHERE r.id = :reviewId")
+    int incrementNotHelpfulCount(@Param("reviewId") Long reviewId);
 }
@@ -0,0 +1,66 @@
+package com.dipika.kalakriti2.repository;
+
+import com.dipika.kalakriti2.entity.ReviewSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReviewSummaryRepository extends JpaRepository<ReviewSummary, Long> {
+
+    // Atomically add deltas to an artwork's summary row, creating the row on first use
+    @Modifying
+    @Query(value = "INSERT INTO review_summary "
+            + "(service_id, review_count, rating_sum, one_star, two_star, three_star, four_star, five_star) "
+            + "VALUES (:serviceId, :count, :sum, :one, :two, :three, :four, :five) "
+            + "ON DUPLICATE KEY UPDATE "
+            + "review_count = review_count + VALUES(review_count), "
+            + "rating_sum = rating_sum + VALUES(rating_sum), "
+            + "one_star = one_star + VALUES(one_star), "
+            + "two_star = two_star + VALUES(two_star), "
+            + "three_star = three_star + VALUES(three_star), "
+            + "four_star = four_star + VALUES(four_star), "
+            + "five_star = five_star + VALUES(five_star)",
+            nativeQuery = true)
+    void applyDelta(@Param("serviceId") Long serviceId,
+                    @Param("count") long count,
+                    @Param("sum") long sum,
+                    @Param("one") long one,
+                    @Param("two") long two,
+                    @Param("three") long three,
+                    @Param("four") long four,
+                    @Param("five") long five);
+
+    // Overwrite every reviewed artwork's row with the counts from the reviews table in one
+    // statement. The SELECT part is a locking read in InnoDB, so a review written meanwhile is
+    // either counted here or applies its delta after this commits, never both or neither.
+    @Modifying
+    @Query(value = "INSERT INTO review_summary "
+            + "(service_id, review_count, rating_sum, one_star, two_star, three_star, four_star, five_star) "
+            + "SELECT r.service_id, COUNT(*), SUM(r.rating), "
+            + "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) "
+            + "FROM reviews r GROUP BY r.service_id "
+            + "ON DUPLICATE KEY UPDATE "
+            + "review_count = VALUES(review_count), "
+            + "rating_sum = VALUES(rating_sum), "
+            + "one_star = VALUES(one_star), "
+            + "two_star = VALUES(two_star), "
+            + "three_star = VALUES(three_star), "
+            + "four_star = VALUES(four_star), "
+            + "five_star = VALUES(five_star)",
+            nativeQuery = true)
+    void upsertAllFromReviews();
+
+    // Drop the rows of artworks that no longer have any review
+    @Modifying
+    @Query(value = "DELETE FROM review_summary WHERE NOT EXISTS "
+            + "(SELECT 1 FROM reviews r WHERE r.service_id = review_summary.service_id)",
+            nativeQuery = true)
+    int deleteWithoutReviews();
+}
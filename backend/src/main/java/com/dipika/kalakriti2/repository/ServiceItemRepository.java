@@ -1,6 +1,11 @@
 package com.dipika.kalakriti2.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import com.dipika.kalakriti2.entity.ServiceItem;
 import java.util.List;
 
@@ -8,4 +13,10 @@ public interface ServiceItemRepository extends JpaRepository<ServiceItem, Long>
 
     // ✅ Add this method for category search
     List<ServiceItem> findByCategory(String category);
+
+    // ✅ Set only the image column (commits on its own, so the caller can evict caches afterwards)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ServiceItem s SET s.image = :image WHERE s.serviceId = :id")
+    int updateImage(@Param("id") Long id, @Param("image") String image);
 }
@@ -1,38 +1,130 @@
 package com.dipika.kalakriti2.service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.dipika.kalakriti2.dto.ActivityDto;
 import com.dipika.kalakriti2.dto.DashboardDto;
 import com.dipika.kalakriti2.entity.Order;
 import com.dipika.kalakriti2.repository.OrderRepository;
+import com.dipika.kalakriti2.repository.OrderStatusTotals;
 import com.dipika.kalakriti2.repository.UserRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 public class AdminDashboardService {
 
+    // Latest orders (3), user sign-ups (3), contact messages (2) and artworks (2), merged newest first.
+    // Each branch is a top-N read on a created_at index, so the cost doesn't grow with table size.
+    private static final String RECENT_ACTIVITY_SQL = """
+            (SELECT 'ORDER' AS type, o.id AS ref_id, NULL AS name, o.total_price AS amount, o.created_at AS ts
+               FROM orders o WHERE o.created_at IS NOT NULL ORDER BY o.created_at DESC LIMIT 3)
+            UNION ALL
+            (SELECT 'USER', u.id, u.name, NULL, u.created_at
+               FROM users u WHERE u.role = 'USER' AND u.created_at IS NOT NULL ORDER BY u.created_at DESC LIMIT 3)
+            UNION ALL
+            (SELECT 'CONTACT', c.id, c.name, NULL, c.created_at
+               FROM contact_messages c WHERE c.created_at IS NOT NULL ORDER BY c.created_at DESC LIMIT 2)
+            UNION ALL
+            (SELECT 'SERVICE', s.service_id, s.name, NULL, s.created_at
+               FROM services s WHERE s.created_at IS NOT NULL ORDER BY s.created_at DESC LIMIT 2)
+            ORDER BY ts DESC
+            LIMIT 10
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private OrderRepository orderRepo;
 
     @Autowired
     private UserRepository userRepo;
 
+    // Counts, revenue (total and per status) and recent orders, all aggregated in the database
     public DashboardDto getDashboardStats() {
 
-        long totalOrders = orderRepo.count();
-        double totalRevenue = orderRepo.getTotalRevenue();
+        long totalOrders = 0;
+        double totalRevenue = 0;
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        Map<String, Double> revenueByStatus = new LinkedHashMap<>();
+
+        for (OrderStatusTotals totals : orderRepo.getTotalsByStatus()) {
+            String status = totals.getStatus() != null ? totals.getStatus() : "UNKNOWN";
+            totalOrders += totals.getOrderCount();
+            totalRevenue += totals.getRevenue();
+            ordersByStatus.merge(status, totals.getOrderCount(), Long::sum);
+            revenueByStatus.merge(status, totals.getRevenue(), Double::sum);
+        }
+
         long totalUsers = userRepo.count();
 
         List<Order> recentOrders =
             orderRepo.findTop5ByOrderByCreatedAtDesc();
 
-        return new DashboardDto(
+        DashboardDto dashboard = new DashboardDto(
             totalOrders,
             totalRevenue,
             totalUsers,
             recentOrders
         );
+        dashboard.setOrdersByStatus(ordersByStatus);
+        dashboard.setRevenueByStatus(revenueByStatus);
+        return dashboard;
+    }
+
+    // Unified activity feed for the admin dashboard (single UNION ALL query)
+    public List<ActivityDto> getRecentActivities() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(RECENT_ACTIVITY_SQL).getResultList();
+
+        List<ActivityDto> activities = new ArrayList<>();
+        for (Object[] row : rows) {
+            String type = (String) row[0];
+            Number refId = (Number) row[1];
+            String name = (String) row[2];
+            Number amount = (Number) row[3];
+            LocalDateTime timestamp = toLocalDateTime(row[4]);
+
+            switch (type) {
+                case "ORDER" -> activities.add(new ActivityDto(
+                        "ORDER",
+                        "New order #" + refId + " placed - ₹" + (amount != null ? amount.doubleValue() : null),
+                        timestamp,
+                        "📦"));
+                case "USER" -> activities.add(new ActivityDto(
+                        "USER",
+                        "New user registered: " + name,
+                        timestamp,
+                        "👤"));
+                case "CONTACT" -> activities.add(new ActivityDto(
+                        "CONTACT",
+                        "New message from " + name,
+                        timestamp,
+                        "✉️"));
+                default -> activities.add(new ActivityDto(
+                        "SERVICE",
+                        "New artwork added: " + name,
+                        timestamp,
+                        "🎨"));
+            }
+        }
+        return activities;
+    }
+
+    private LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
     }
 }
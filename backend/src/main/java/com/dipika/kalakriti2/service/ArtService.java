@@ -11,9 +11,14 @@ import java.util.Optional;
 @Service
 public class ArtService {
 
+    private static final String ART_KEY = "art";
+
     @Autowired
     private ArtRepository artRepository;
 
+    @Autowired
+    private ContentVersions contentVersions;
+
     // Get all artworks
     public List<Art> getAllArts() {
         return artRepository.findAll();
@@ -26,12 +31,20 @@ public class ArtService {
 
     // Save or update artwork
     public Art saveArt(Art art) {
-        return artRepository.save(art);
+        Art saved = artRepository.save(art);
+        contentVersions.bump(ART_KEY);
+        return saved;
     }
 
     // Delete artwork by ID
     public void deleteArt(Long id) {
         artRepository.deleteById(id);
+        contentVersions.bump(ART_KEY);
+    }
+
+    // ETag shared by all artwork reads (the art table is small and rarely written)
+    public String getArtEtag() {
+        return contentVersions.etag(ART_KEY);
     }
 
     // Get artworks by category
@@ -0,0 +1,141 @@
+package com.dipika.kalakriti2.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import com.dipika.kalakriti2.utils.TokenBucket;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends many messages over one authenticated SMTP connection, at most mail.bulk.rate-per-second.
+ * A failing message does not stop the others; if the server drops the connection it is opened
+ * again once before the remaining messages are given up.
+ */
+@Slf4j
+@Component
+public class BulkMailSender {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    private final TokenBucket rateLimit;
+
+    public BulkMailSender(@Value("${mail.bulk.rate-per-second:5}") double ratePerSecond,
+                          @Value("${mail.bulk.burst:10}") int burst) {
+        this.rateLimit = new TokenBucket(burst, ratePerSecond);
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    // Returns the messages that could not be sent with their errors (empty when all went out)
+    public Map<MimeMessage, Exception> sendAll(List<MimeMessage> messages) {
+        Map<MimeMessage, Exception> failures = new LinkedHashMap<>();
+        if (messages.isEmpty()) {
+            return failures;
+        }
+        if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+            sendThroughTemplate(messages, failures);
+            return failures;
+        }
+
+        Transport transport = null;
+        boolean reconnected = false;
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                MimeMessage message = messages.get(i);
+                try {
+                    rateLimit.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    for (int j = i; j < messages.size(); j++) {
+                        failures.put(messages.get(j), e);
+                    }
+                    break;
+                }
+
+                try {
+                    if (transport == null || !transport.isConnected()) {
+                        if (transport != null) {
+                            if (reconnected) {
+                                throw new MessagingException("SMTP connection lost twice");
+                            }
+                            reconnected = true;
+                            log.warn("SMTP connection lost after {} of {} messages, reconnecting", i, messages.size());
+                        }
+                        transport = connect(sender);
+                    }
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new java.util.Date());
+                    }
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (MessagingException | RuntimeException e) {
+                    failures.put(message, e);
+                    if (transport == null) {
+                        // Could not connect at all: nothing else will go out either
+                        for (int j = i + 1; j < messages.size(); j++) {
+                            failures.put(messages.get(j), e);
+                        }
+                        break;
+                    }
+                }
+            }
+        } finally {
+            close(transport);
+        }
+        return failures;
+    }
+
+    private Transport connect(JavaMailSenderImpl sender) throws MessagingException {
+        Transport transport = sender.getSession().getTransport(
+                sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+        String username = sender.getUsername();
+        String password = sender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        transport.connect(sender.getHost(), sender.getPort(), username, password);
+        return transport;
+    }
+
+    private void sendThroughTemplate(List<MimeMessage> messages, Map<MimeMessage, Exception> failures) {
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, error) -> failures.put((MimeMessage) message, error));
+            if (failures.isEmpty()) {
+                messages.forEach(message -> failures.put(message, e));
+            }
+        } catch (RuntimeException e) {
+            messages.forEach(message -> failures.put(message, e));
+        }
+    }
+
+    private void close(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection", e);
+        }
+    }
+}
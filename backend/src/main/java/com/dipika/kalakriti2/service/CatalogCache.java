@@ -0,0 +1,122 @@
+package com.dipika.kalakriti2.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bounded read-through cache for catalog responses.
+ * Values are stored as already serialized JSON, so a hit is written straight to the response
+ * without touching the database or Jackson. Entries expire after a TTL and the least recently
+ * used entry is dropped when the cache is full.
+ * A value loaded while its key was invalidated is returned but not cached, so a slow load that
+ * read the old data cannot overwrite the invalidation.
+ */
+@Component
+public class CatalogCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Map<String, CachedJson> entries;
+
+    // Invalidation counters, striped by key hash (bounded, unlike one counter per key)
+    private static final int GENERATION_STRIPES = 64;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public CatalogCache(@Value("${catalog.cache.max-entries:500}") int maxEntries,
+                        @Value("${catalog.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedJson> eldest) {
+                if (size() > CatalogCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    // Cached JSON for key, or load + serialize + cache it
+    public byte[] get(String key, Supplier<?> loader) {
+        CachedJson cached = entries.get(key);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            hits.increment();
+            return cached.json;
+        }
+
+        misses.increment();
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        byte[] json = serialize(loader.get());
+        synchronized (entries) {
+            if (generations.get(stripe) == generation) {
+                entries.put(key, new CachedJson(json, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return json;
+    }
+
+    public void invalidate(String key) {
+        synchronized (entries) {
+            generations.incrementAndGet(stripe(key));
+            entries.remove(key);
+        }
+    }
+
+    private int stripe(String key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return Map.of(
+                "entries", entries.size(),
+                "maxEntries", maxEntries,
+                "hits", hitCount,
+                "misses", missCount,
+                "evictions", evictions.sum(),
+                "hitRatio", total > 0 ? (double) hitCount / total : 0.0
+        );
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize catalog response", e);
+        }
+    }
+
+    private static class CachedJson {
+        final byte[] json;
+        final long expiresAt;
+
+        CachedJson(byte[] json, long expiresAt) {
+            this.json = json;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.dipika.kalakriti2.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dipika.kalakriti2.repository.BlobRefRepository;
+import com.dipika.kalakriti2.utils.ImageType;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed storage for contact / commission images.
+ * Uploads are hashed while they stream into a temp file under upload-staging/contact (outside
+ * the served uploads/ tree, so half-written files are never reachable) and then moved atomically
+ * to uploads/contact/<sha256>.<ext>, so the same photo attached to several requests is kept once.
+ * The extension comes from the detected image format, never from the client's file name.
+ * blob_refs counts the messages using each file; when the count drops to zero the file is deleted.
+ * Store and delete of one digest are serialized with a striped lock (single-node app).
+ * Images of one submission are validated (magic bytes, size) and written in parallel.
+ */
+@Slf4j
+@Service
+public class ContactBlobStore {
+
+    public static final Path CONTACT_DIR = Paths.get(System.getProperty("user.dir"), "uploads", "contact");
+
+    // Next to uploads/, i.e. on the same filesystem: ATOMIC_MOVE cannot cross filesystems
+    static final Path STAGING_DIR = Paths.get(System.getProperty("user.dir"), "upload-staging", "contact");
+
+    // Only image extensions ever end up in the store (taken from the detected format)
+    private static final Pattern BLOB_NAME = Pattern.compile("^([0-9a-f]{64})(\\.(?:jpg|jpeg|png|gif|webp))?$");
+    private static final int LOCK_STRIPES = 64;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private BlobRefRepository blobRefRepository;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ThreadPoolExecutor writers;
+
+    public ContactBlobStore(@Value("${contact.upload.max-file-size:15MB}") DataSize maxFileSize,
+                            @Value("${contact.upload.max-files:10}") int maxFiles,
+                            @Value("${contact.upload.writers:4}") int writerCount) throws IOException {
+        Files.createDirectories(CONTACT_DIR);
+        Files.createDirectories(STAGING_DIR);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.maxFiles = maxFiles;
+
+        // When every writer is busy the request thread writes its own files (natural backpressure)
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerCount, writerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writerCount * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "contact-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    /**
+     * Validates and stores all images of one submission concurrently and returns their file
+     * names in input order. If any file is rejected or fails, the ones already stored are
+     * released again and the first error is thrown (IllegalArgumentException for bad input).
+     */
+    public List<String> storeAll(List<MultipartFile> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (files.size() > maxFiles) {
+            throw new IllegalArgumentException("At most " + maxFiles + " images per request");
+        }
+        for (MultipartFile file : files) {
+            // Cheap early reject before anything touches the disk
+            if (file.getSize() > maxFileBytes) {
+                throw new IllegalArgumentException(file.getOriginalFilename() + " is larger than "
+                        + maxFileBytes / (1024 * 1024) + "MB");
+            }
+        }
+
+        List<Future<String>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            futures.add(writers.submit(() -> store(file)));
+        }
+
+        List<String> stored = new ArrayList<>(files.size());
+        Throwable failure = null;
+        for (Future<String> future : futures) {
+            try {
+                stored.add(future.get());
+            } catch (ExecutionException e) {
+                failure = failure != null ? failure : e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = failure != null ? failure : e;
+            }
+        }
+
+        if (failure != null) {
+            release(stored);
+            if (failure instanceof IOException io) {
+                throw io;
+            }
+            if (failure instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Image upload interrupted", failure);
+        }
+        return stored;
+    }
+
+    // Stores the upload (or reuses the identical file) and returns its file name
+    public String store(MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile(STAGING_DIR, ".upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            ImageType type;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int headerLength = in.readNBytes(buffer, 0, ImageType.MAGIC_BYTES);
+                if (headerLength == 0) {
+                    throw new IllegalArgumentException(file.getOriginalFilename() + " is empty");
+                }
+                type = ImageType.detect(buffer, headerLength);
+                if (type == null) {
+                    throw new IllegalArgumentException(file.getOriginalFilename()
+                            + " is not a JPEG, PNG, GIF or WebP image");
+                }
+                out.write(buffer, 0, headerLength);
+                size = headerLength;
+
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    size += read;
+                    if (size > maxFileBytes) {
+                        throw new IllegalArgumentException(file.getOriginalFilename() + " is larger than "
+                                + maxFileBytes / (1024 * 1024) + "MB");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String fileName = hash + "." + type.getExtension();
+
+            synchronized (lockFor(hash)) {
+                blobRefRepository.acquire(hash, fileName, size);
+                Path target = CONTACT_DIR.resolve(blobRefRepository.findById(hash)
+                        .map(ref -> ref.getFileName())
+                        .orElse(fileName));
+                if (!Files.exists(target)) {
+                    try {
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // identical content landed first; keep that copy
+                    }
+                }
+                return target.getFileName().toString();
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Drops one reference per file name. Files whose count reaches zero are deleted after the
+     * surrounding transaction commits (right away when there is none). Files from before the
+     * blob store (timestamp names) were never shared, so they are deleted directly.
+     */
+    public void release(Collection<String> fileNames) {
+        List<String> released = new ArrayList<>();
+        List<String> legacy = new ArrayList<>();
+        for (String fileName : fileNames) {
+            Matcher matcher = BLOB_NAME.matcher(fileName);
+            if (!matcher.matches()) {
+                legacy.add(fileName);
+            } else if (blobRefRepository.release(matcher.group(1)) > 0) {
+                released.add(matcher.group(1));
+            }
+        }
+
+        Runnable collect = () -> {
+            released.forEach(this::collectIfUnreferenced);
+            legacy.forEach(fileName -> deleteFile(CONTACT_DIR.resolve(fileName).normalize()));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    collect.run();
+                }
+            });
+        } else {
+            collect.run();
+        }
+    }
+
+    private void collectIfUnreferenced(String hash) {
+        synchronized (lockFor(hash)) {
+            String fileName = blobRefRepository.findById(hash).map(ref -> ref.getFileName()).orElse(null);
+            if (fileName != null && blobRefRepository.deleteIfUnreferenced(hash) > 0) {
+                deleteFile(CONTACT_DIR.resolve(fileName));
+                imageDerivativeService.delete(CONTACT_DIR.resolve(fileName), hash);
+                log.info("🗑️ Removed orphaned upload {}", fileName);
+            }
+        }
+    }
+
+    private void deleteFile(Path path) {
+        if (!path.startsWith(CONTACT_DIR)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete upload {}", path, e);
+        }
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
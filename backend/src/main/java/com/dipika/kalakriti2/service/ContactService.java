@@ -1,10 +1,13 @@
 package com.dipika.kalakriti2.service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.dipika.kalakriti2.dto.ContactAdminDto;
 import com.dipika.kalakriti2.entity.ContactImage;
@@ -21,6 +24,12 @@ public class ContactService {
     @Autowired
     private ContactImageRepository imageRepository;
 
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private ContactBlobStore contactBlobStore;
+
     public List<ContactAdminDto> getAdminContacts() {
 
         List<ContactMessage> contacts = contactRepository.findAll();
@@ -43,6 +52,13 @@ public class ContactService {
             } else {
                  dto.setImages(new ArrayList<>());
             }
+
+            // Resized variants per image, for thumbnails in the admin list
+            Map<String, Map<String, String>> srcsets = new LinkedHashMap<>();
+            for (String image : dto.getImages()) {
+                srcsets.put(image, imageDerivativeService.srcset(ContactBlobStore.CONTACT_DIR.resolve(image)));
+            }
+            dto.setImageSrcsets(srcsets);
             
             dto.setCreatedAt(c.getCreatedAt()); // Get date
 
@@ -56,8 +72,14 @@ public class ContactService {
         return contactRepository.findAll();
     }
 
+    // Delete the message and release its images (files no other message uses are removed)
+    @Transactional
     public void deleteContact(Long id) {
-        contactRepository.deleteById(id);
+        ContactMessage contact = contactRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+        List<String> images = contact.getImages() != null ? new ArrayList<>(contact.getImages()) : List.of();
+        contactRepository.delete(contact);
+        contactBlobStore.release(images);
     }
 
     public List<ContactMessage> getUserCommissions(String email) {
@@ -0,0 +1,51 @@
+package com.dipika.kalakriti2.service;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version stamps for read endpoints (catalog, category, artwork reviews...).
+ * Every write bumps the stamps of the data it touched; reads turn the current stamp into a
+ * strong ETag, so If-None-Match can be answered with 304 without loading anything.
+ * Stamps live in memory, so each ETag also carries a random per-start id.
+ */
+@Component
+public class ContentVersions {
+
+    private final String bootId = Long.toHexString(new SecureRandom().nextLong());
+
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // Current strong ETag of the given keys (changes when any of them is bumped)
+    public String etag(String... keys) {
+        StringBuilder tag = new StringBuilder("\"").append(bootId);
+        for (String key : keys) {
+            AtomicLong version = versions.get(key);
+            tag.append('-').append(version != null ? version.get() : 0);
+        }
+        return tag.append('"').toString();
+    }
+
+    // Mark key as changed (after commit when called inside a transaction)
+    public void bump(String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(key);
+                }
+            });
+        } else {
+            increment(key);
+        }
+    }
+
+    private void increment(String key) {
+        versions.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,144 @@
+package com.dipika.kalakriti2.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.dipika.kalakriti2.entity.EmailOutbox;
+import com.dipika.kalakriti2.repository.EmailOutboxRepository;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends queued emails from the email_outbox table in the background.
+ * Each run takes a batch of due rows and hands them to BulkMailSender, so the whole batch goes
+ * over a single rate-limited SMTP connection (one connect + STARTTLS instead of one per email).
+ * Failed emails are retried with exponential backoff and marked DEAD after the last attempt.
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private BulkMailSender bulkMailSender;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${mail.outbox.retry-max-seconds:3600}")
+    private long retryMaxSeconds;
+
+    @Value("${mail.outbox.retention-days:30}")
+    private int retentionDays;
+
+    // Rate-limited runs can take a while; a manual dispatch() must not pick up the same rows
+    private final ReentrantLock running = new ReentrantLock();
+
+    // Runs again a moment after the previous run finished, so runs never overlap
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        if (!running.tryLock()) {
+            return;
+        }
+        try {
+            dispatchBatch();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private void dispatchBatch() {
+        List<EmailOutbox> due = outboxRepository.findDue(EmailOutbox.PENDING, LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<MimeMessage, EmailOutbox> batch = new LinkedHashMap<>();
+        for (EmailOutbox email : due) {
+            try {
+                batch.put(toMimeMessage(email), email);
+            } catch (MessagingException | RuntimeException e) {
+                failed(email, e);
+            }
+        }
+
+        Map<MimeMessage, Exception> failures = bulkMailSender.sendAll(new ArrayList<>(batch.keySet()));
+
+        int sent = 0;
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : batch.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                failed(entry.getValue(), failure);
+            } else {
+                entry.getValue().setStatus(EmailOutbox.SENT);
+                entry.getValue().setSentAt(LocalDateTime.now());
+                entry.getValue().setLastError(null);
+                sent++;
+            }
+        }
+        outboxRepository.saveAll(due);
+        log.info("📧 Outbox run: {} sent, {} failed", sent, due.size() - sent);
+    }
+
+    // Keep the table small: sent emails are only needed for a while
+    @Scheduled(cron = "${mail.outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteSentBefore(EmailOutbox.SENT,
+                LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("🧹 Removed {} sent emails from the outbox", deleted);
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = bulkMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.getHtml(), "UTF-8");
+        helper.setTo(email.getToEmail());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.getHtml());
+        helper.setFrom(EmailService.FROM_ADDRESS);
+        return message;
+    }
+
+    private void failed(EmailOutbox email, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        email.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.DEAD);
+            log.error("❌ Giving up on email #{} to {} after {} attempts: {}",
+                    email.getId(), email.getToEmail(), attempts, error);
+            return;
+        }
+
+        // 30s, 1m, 2m, 4m ... capped at retry-max-seconds
+        long delay = Math.min(retryMaxSeconds, retryBaseSeconds << Math.min(attempts - 1, 20));
+        email.setNextAttemptAt(LocalDateTime.now().plusSeconds(delay));
+        log.warn("Email #{} to {} failed (attempt {}), retrying in {}s: {}",
+                email.getId(), email.getToEmail(), attempts, delay, error);
+    }
+}
@@ -1,30 +1,57 @@
 package com.dipika.kalakriti2.service;
 
+import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.util.Collections;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Verifies Google ID tokens with one long-lived transport and verifier.
+ * The verifier's GooglePublicKeysManager keeps Google's signing keys in memory until the
+ * Cache-Control max-age of the keys response; refreshKeys() fetches them again shortly before
+ * that, so a login normally only costs the signature check.
+ * google.auth.certs-url can point at a local key set (e.g. for tests).
+ */
+@Slf4j
 @Service
 public class GoogleAuthService {
 
     private static final String CLIENT_ID =
         "414653286779-eqvolh5vcsh2v4scivbet4ffoj2ouin3.apps.googleusercontent.com";
 
-    public GoogleIdToken.Payload verify(String token) throws Exception {
+    private final GooglePublicKeysManager publicKeys;
+    private final GoogleIdTokenVerifier verifier;
+    private final long refreshAheadMillis;
 
-        GoogleIdTokenVerifier verifier =
-            new GoogleIdTokenVerifier.Builder(
+    public GoogleAuthService(
+            @Value("${google.auth.client-id:" + CLIENT_ID + "}") String clientId,
+            @Value("${google.auth.certs-url:https://www.googleapis.com/oauth2/v1/certs}") String certsUrl,
+            @Value("${google.auth.refresh-ahead-seconds:600}") long refreshAheadSeconds)
+            throws GeneralSecurityException, IOException {
+        this.publicKeys = new GooglePublicKeysManager.Builder(
                 GoogleNetHttpTransport.newTrustedTransport(),
                 GsonFactory.getDefaultInstance()
             )
-            .setAudience(Collections.singletonList(CLIENT_ID))
+            .setPublicCertsEncodedUrl(certsUrl)
+            .build();
+        this.verifier = new GoogleIdTokenVerifier.Builder(publicKeys)
+            .setAudience(Collections.singletonList(clientId))
             .build();
+        this.refreshAheadMillis = refreshAheadSeconds * 1000;
+    }
+
+    public GoogleIdToken.Payload verify(String token) throws Exception {
 
         GoogleIdToken idToken = verifier.verify(token);
 
@@ -34,4 +61,21 @@ public class GoogleAuthService {
 
         return idToken.getPayload();
     }
+
+    // Load the keys at startup and again before they expire, off the login path
+    @Scheduled(initialDelay = 0, fixedDelayString = "${google.auth.keys-check-interval-ms:60000}")
+    public void refreshKeys() {
+        long expiresAt = publicKeys.getExpirationTimeMilliseconds();
+        if (expiresAt - refreshAheadMillis > System.currentTimeMillis()) {
+            return; // cached keys are still fresh
+        }
+        try {
+            publicKeys.refresh();
+            log.info("🔑 Google signing keys refreshed ({} keys, valid for {}s)", publicKeys.getPublicKeys().size(),
+                    (publicKeys.getExpirationTimeMilliseconds() - System.currentTimeMillis()) / 1000);
+        } catch (GeneralSecurityException | IOException e) {
+            // The verifier fetches them on demand if this keeps failing
+            log.warn("Could not refresh Google signing keys: {}", e.getMessage());
+        }
+    }
 }
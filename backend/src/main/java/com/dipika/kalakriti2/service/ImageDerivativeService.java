@@ -0,0 +1,271 @@
+package com.dipika.kalakriti2.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.dipika.kalakriti2.utils.ImageSrcset;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resized JPEG variants of images stored on our own disk (contact / commission uploads).
+ * Variants are written to uploads/derivatives/<sha256 of original>-<width>.jpg, so identical
+ * files share their derivatives and an existing file is never rendered twice. Re-encoding
+ * through ImageIO drops EXIF and other metadata. Work runs on a small bounded pool; when it is
+ * busy the request is skipped and retried the next time the image is listed.
+ * Dimensions are read from the header first: images over image.derivatives.max-pixels are never
+ * decoded, and the rest are decoded subsampled to about the largest variant width.
+ * Originals that cannot be decoded are remembered by content hash and not read again.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    private static final String DERIVATIVE_URL_PREFIX = "/uploads/derivatives/";
+    private static final float JPEG_QUALITY = 0.8f;
+
+    // Largest variant; sources are decoded at no more than (about) this width
+    private static final int MAX_VARIANT_WIDTH = Collections.max(ImageSrcset.WIDTHS);
+
+    private final Path derivativeDir;
+    private final ThreadPoolExecutor workers;
+    private final long maxPixels;
+
+    // original file -> sha256 of its content, once its derivatives are on disk
+    private final Map<Path, String> rendered = new ConcurrentHashMap<>();
+    private final Map<Path, Boolean> pending = new ConcurrentHashMap<>();
+
+    // sha256 of originals whose decoding failed (corrupt or truncated files)
+    private final Set<String> unreadable = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativeService(@Value("${image.derivatives.workers:2}") int workerCount,
+                                  @Value("${image.derivatives.queue-capacity:200}") int queueCapacity,
+                                  @Value("${image.derivatives.max-pixels:40000000}") long maxPixels)
+            throws IOException {
+        this.maxPixels = maxPixels;
+        this.derivativeDir = Files.createDirectories(
+                Paths.get(System.getProperty("user.dir"), "uploads", "derivatives"));
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Queue derivative generation for a freshly stored original
+    public void submit(Path original) {
+        if (rendered.containsKey(original) || pending.putIfAbsent(original, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    pending.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(original);
+            log.warn("Derivative queue full, skipping {}", original.getFileName());
+        }
+    }
+
+    // "300w" -> public URL of each variant; empty (and generation queued) until they exist
+    public Map<String, String> srcset(Path original) {
+        String hash = rendered.get(original);
+        if (hash == null) {
+            if (Files.exists(original)) {
+                submit(original);
+            }
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> srcset = new LinkedHashMap<>();
+        for (int width : ImageSrcset.WIDTHS) {
+            if (Files.exists(derivativeDir.resolve(fileName(hash, width)))) {
+                srcset.put(width + "w", DERIVATIVE_URL_PREFIX + fileName(hash, width));
+            }
+        }
+        return srcset;
+    }
+
+    // Forget an original that was deleted, together with its variants
+    public void delete(Path original, String hash) {
+        rendered.remove(original);
+        unreadable.remove(hash);
+        for (int width : ImageSrcset.WIDTHS) {
+            try {
+                Files.deleteIfExists(derivativeDir.resolve(fileName(hash, width)));
+            } catch (IOException e) {
+                log.warn("Could not delete derivative {}", fileName(hash, width), e);
+            }
+        }
+    }
+
+    void generate(Path original) {
+        try {
+            String hash = sha256(original);
+            if (unreadable.contains(hash)) {
+                rendered.put(original, hash);
+                return;
+            }
+            BufferedImage source = null;
+
+            for (int width : ImageSrcset.WIDTHS) {
+                Path target = derivativeDir.resolve(fileName(hash, width));
+                if (Files.exists(target)) {
+                    continue; // already rendered from identical content
+                }
+                if (source == null) {
+                    try {
+                        source = readBounded(original);
+                    } catch (IOException e) {
+                        // The same bytes would fail again on every listing
+                        log.warn("Could not decode {}, no derivatives: {}", original.getFileName(), e.getMessage());
+                        unreadable.add(hash);
+                    }
+                    if (source == null) {
+                        rendered.put(original, hash); // nothing to render, do not retry on every listing
+                        return;
+                    }
+                }
+                writeJpeg(resize(source, width), target);
+            }
+
+            rendered.put(original, hash);
+        } catch (IOException e) {
+            log.error("❌ Derivative generation failed for {}", original.getFileName(), e);
+        }
+    }
+
+    // Decode an image within the pixel budget, subsampled to about MAX_VARIANT_WIDTH (null if unusable)
+    private BufferedImage readBounded(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                log.warn("Not a readable image, no derivatives for {}", original.getFileName());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Image {} is {}x{}, over the {} pixel limit, no derivatives",
+                            original.getFileName(), width, height, maxPixels);
+                    return null;
+                }
+
+                // Every n-th pixel in both directions, keeping at least MAX_VARIANT_WIDTH columns
+                int step = Math.max(1, width / MAX_VARIANT_WIDTH);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scale down to the target width (never up), flattening transparency onto white
+    private BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    // Write to a temp file first so a half-written variant is never served
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+
+        Path temp = Files.createTempFile(derivativeDir, "derivative", ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String fileName(String hash, int width) {
+        return hash + "-" + width + ".jpg";
+    }
+}
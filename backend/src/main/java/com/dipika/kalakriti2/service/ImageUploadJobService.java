@@ -0,0 +1,244 @@
+package com.dipika.kalakriti2.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dipika.kalakriti2.dto.UploadJobDto;
+import com.dipika.kalakriti2.utils.UploadToCloud;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Background image uploads to ImageKit.
+ * The request thread only stages the file on local disk and gets a job id back; a small fixed
+ * pool of workers does the actual upload, retrying with exponential backoff. When the job
+ * belongs to an artwork, its image URL is patched in once the upload succeeds.
+ * Jobs live in memory and finished ones are forgotten after an hour.
+ */
+@Slf4j
+@Service
+public class ImageUploadJobService {
+
+    public static final int MAX_BATCH = 50;
+    private static final long FINISHED_JOB_RETENTION_MINUTES = 60;
+
+    @Autowired
+    private UploadToCloud uploadToCloud;
+
+    @Autowired
+    private ServiceItemService serviceItemService;
+
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Path stagingDir;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<String, UploadJobDto> jobs = new ConcurrentHashMap<>();
+    private final Object enqueueLock = new Object();
+
+    public ImageUploadJobService(@Value("${upload.workers:4}") int workerCount,
+                                 @Value("${upload.queue-capacity:100}") int queueCapacity,
+                                 @Value("${upload.max-attempts:3}") int maxAttempts,
+                                 @Value("${upload.retry-backoff-ms:1000}") long retryBackoffMillis,
+                                 @Value("${upload.staging-dir:${java.io.tmpdir}/kalakriti-upload-staging}") String stagingDir)
+            throws IOException {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.stagingDir = Files.createDirectories(Paths.get(stagingDir));
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Stage one file and queue its upload; serviceId (optional) gets the URL when done
+    public UploadJobDto submit(MultipartFile file, Long serviceId) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        pruneFinishedJobs();
+
+        StagedUpload upload = stage(file, serviceId);
+        enqueue(List.of(upload));
+        return upload.job;
+    }
+
+    // Queue many gallery images; at most upload.workers of them upload at the same time.
+    // All or nothing: if the queue cannot take the whole batch, no job is started.
+    public List<UploadJobDto> submitAll(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No files to upload");
+        }
+        if (files.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH + " files per batch");
+        }
+        for (MultipartFile file : files) {
+            if (file == null || file.isEmpty()) {
+                throw new IllegalArgumentException("File is empty");
+            }
+        }
+        pruneFinishedJobs();
+
+        List<StagedUpload> uploads = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                uploads.add(stage(file, null));
+            }
+        } catch (RuntimeException e) {
+            uploads.forEach(upload -> deleteQuietly(upload.path));
+            throw e;
+        }
+        enqueue(uploads);
+
+        List<UploadJobDto> submitted = new ArrayList<>(uploads.size());
+        for (StagedUpload upload : uploads) {
+            submitted.add(upload.job);
+        }
+        return submitted;
+    }
+
+    private StagedUpload stage(MultipartFile file, Long serviceId) {
+        UploadJobDto job = new UploadJobDto(UUID.randomUUID().toString(), file.getOriginalFilename(), serviceId);
+        Path staged = stagingDir.resolve(job.getJobId());
+        try {
+            file.transferTo(staged);
+        } catch (IOException e) {
+            deleteQuietly(staged);
+            throw new RuntimeException("Could not stage upload", e);
+        }
+        return new StagedUpload(job, staged, file.getContentType());
+    }
+
+    // Workers only ever free queue slots, so checking the capacity and queueing under one lock
+    // guarantees that the whole batch fits
+    private void enqueue(List<StagedUpload> uploads) {
+        synchronized (enqueueLock) {
+            if (uploads.size() > workers.getQueue().remainingCapacity()) {
+                uploads.forEach(upload -> deleteQuietly(upload.path));
+                throw new IllegalStateException("Upload queue is full, please retry shortly");
+            }
+            for (StagedUpload upload : uploads) {
+                jobs.put(upload.job.getJobId(), upload.job);
+                try {
+                    workers.execute(() -> run(upload.job, upload.path, upload.contentType));
+                } catch (RejectedExecutionException e) {
+                    // Only when shutting down
+                    jobs.remove(upload.job.getJobId());
+                    deleteQuietly(upload.path);
+                    throw new IllegalStateException("Upload queue is full, please retry shortly");
+                }
+            }
+        }
+    }
+
+    private static class StagedUpload {
+        final UploadJobDto job;
+        final Path path;
+        final String contentType;
+
+        StagedUpload(UploadJobDto job, Path path, String contentType) {
+            this.job = job;
+            this.path = path;
+            this.contentType = contentType;
+        }
+    }
+
+    public UploadJobDto getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private void run(UploadJobDto job, Path staged, String contentType) {
+        try {
+            String url = uploadWithRetry(job, staged, contentType);
+            if (url == null) {
+                return;
+            }
+            job.setUrl(url);
+            job.setError(null);
+            if (job.getServiceId() != null && !serviceItemService.updateImage(job.getServiceId(), url)) {
+                job.setError("Artwork " + job.getServiceId() + " no longer exists");
+            }
+            finish(job, UploadJobDto.Status.DONE);
+        } catch (RuntimeException e) {
+            log.error("❌ Upload job {} failed", job.getJobId(), e);
+            job.setError(e.getMessage());
+            finish(job, UploadJobDto.Status.FAILED);
+        } finally {
+            deleteQuietly(staged);
+        }
+    }
+
+    // Returns the image URL, or null once the job has been marked FAILED
+    private String uploadWithRetry(UploadJobDto job, Path staged, String contentType) {
+        for (int attempt = 1; ; attempt++) {
+            job.setStatus(UploadJobDto.Status.UPLOADING);
+            job.setAttempts(attempt);
+            try {
+                return uploadToCloud.uploadToCloud(staged, job.getFileName(), contentType);
+            } catch (RuntimeException e) {
+                job.setError(e.getMessage());
+                if (attempt >= maxAttempts) {
+                    log.error("❌ Upload job {} gave up after {} attempts", job.getJobId(), attempt, e);
+                    finish(job, UploadJobDto.Status.FAILED);
+                    return null;
+                }
+                log.warn("Upload job {} attempt {} failed, retrying: {}", job.getJobId(), attempt, e.getMessage());
+            }
+
+            try {
+                Thread.sleep(retryBackoffMillis << (attempt - 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish(job, UploadJobDto.Status.FAILED);
+                return null;
+            }
+        }
+    }
+
+    private void finish(UploadJobDto job, UploadJobDto.Status status) {
+        job.setStatus(status);
+        job.setFinishedAt(LocalDateTime.now());
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(FINISHED_JOB_RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}", path, e);
+        }
+    }
+}
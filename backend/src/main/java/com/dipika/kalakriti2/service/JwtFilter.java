@@ -1,15 +1,20 @@
 package com.dipika.kalakriti2.service;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.dipika.kalakriti2.dto.AuthPrincipal;
+
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,36 +39,30 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractEmail(jwt);
+                // One parse: signature, expiry and subject (repeat tokens come from the verified cache)
+                claims = jwtUtil.verify(authorizationHeader.substring(7));
             } catch (Exception e) {
                 // Token invalid or expired
                 logger.error("JWT Token validation failed: " + e.getMessage());
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Here we ideally load user from DB to verify existence and get roles
-            // UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            
-            // For now, let's validate token integrity
-            if (jwtUtil.validateToken(jwt, username)) {
-                // If valid, set authentication
-                // Note: We need authorities (roles) here. 
-                // If JwtUtil extracts them, great. If not, we might need to fetch them.
-                
-                // Placeholder: Creating a simple authenticated token
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        username, null, java.util.Collections.emptyList()); // Empty authorities for now
-                
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Id and role come from the token claims: no user lookup per request
+            AuthPrincipal principal = jwtUtil.toPrincipal(claims);
+            List<SimpleGrantedAuthority> authorities = principal.getRole() != null
+                    ? List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().toUpperCase()))
+                    : List.of(); // tokens issued before the role claim
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal, null, authorities);
+
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         chain.doFilter(request, response);
     }
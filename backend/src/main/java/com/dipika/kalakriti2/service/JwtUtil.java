@@ -1,10 +1,23 @@
 package com.dipika.kalakriti2.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.dipika.kalakriti2.dto.AuthPrincipal;
+import com.dipika.kalakriti2.entity.UserEntity;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -14,34 +27,124 @@ import javax.crypto.SecretKey;
 @Service
 public class JwtUtil {
 
-    // Secret key (should ideally come from application.properties or env variable)
-    private static final String SECRET_KEY = "MySuperSecretKeyForJWTGeneration123!"; 
-
     // Token validity: 24 hours
     private static final long EXPIRATION_TIME = 24 * 60 * 60 * 1000; 
 
-    // Convert SECRET_KEY to SecretKey object
-    private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    // HS256 needs a key of at least 256 bits
+    private static final int MIN_SECRET_BYTES = 32;
+
+    // Signing key from jwt.secret (JWT_SECRET); there is no default, so the app does not start without it
+    private final SecretKey key;
+
+    // Built once; the parser is immutable and safe to share between threads
+    private final JwtParser parser;
+
+    // Already verified tokens (by SHA-256 of the token), kept until the token expires.
+    // A repeat request with the same token skips the signature check and JSON parsing.
+    // Reads take no lock and do not modify the map; when it is full, expired entries are
+    // swept out first and then arbitrary ones until it is below the limit again.
+    private final int cacheMaxEntries;
+    private final ConcurrentHashMap<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("jwt.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = Keys.hmacShaKeyFor(secretBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)  // ✅ use SecretKey object
+                .build();
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    // Claim names for the caller's id and role (read by JwtFilter)
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
 
     // ================= GENERATE TOKEN =================
     public String generateToken(String email) {
+        return generateToken(email, null, null);
+    }
+
+    // Token carrying the user id and role, so requests need no user lookup
+    public String generateToken(UserEntity user) {
+        return generateToken(user.getEmail(), user.getId(), user.getRole() != null ? user.getRole() : "USER");
+    }
+
+    public String generateToken(String email, Long userId, String role) {
         return Jwts.builder()
                 .setSubject(email)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLE_CLAIM, role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(KEY, SignatureAlgorithm.HS256)  // ✅ modern way
+                .signWith(key, SignatureAlgorithm.HS256)  // ✅ modern way
                 .compact();
     }
 
+    // ================= VERIFY TOKEN (single parse) =================
+    // Claims of a valid, unexpired token; throws JwtException when the token is invalid or expired
+    public Claims verify(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached.claims;
+            }
+            verified.remove(digest, cached);
+        }
+
+        // parseClaimsJws checks the signature and rejects expired tokens
+        Claims claims = getClaims(token);
+        if (claims.getExpiration() != null && cacheMaxEntries > 0) {
+            if (verified.size() >= cacheMaxEntries) {
+                makeRoom(now);
+            }
+            verified.put(digest, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+
+    // One thread at a time trims the full cache; the others just add their entry meanwhile
+    private void makeRoom(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            verified.values().removeIf(entry -> entry.expiresAt <= now);
+            Iterator<String> keys = verified.keySet().iterator();
+            while (verified.size() >= cacheMaxEntries && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // ================= PRINCIPAL FROM CLAIMS =================
+    public AuthPrincipal toPrincipal(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        return new AuthPrincipal(userId != null ? userId.longValue() : null,
+                claims.getSubject(), claims.get(ROLE_CLAIM, String.class));
+    }
+
     // ================= VALIDATE TOKEN =================
     public boolean validateToken(String token, String email) {
-        String tokenEmail = extractEmail(token);
-        return (tokenEmail.equals(email) && !isTokenExpired(token));
+        try {
+            return verify(token).getSubject().equals(email);
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
     // ================= EXTRACT EMAIL =================
     public String extractEmail(String token) {
-        return getClaims(token).getSubject();
+        return verify(token).getSubject();
     }
 
     // ================= CHECK EXPIRATION =================
@@ -51,10 +154,25 @@ public class JwtUtil {
 
     // ================= PARSE CLAIMS =================
     private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(KEY)  // ✅ use SecretKey object
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class VerifiedToken {
+        final Claims claims;
+        final long expiresAt;
+
+        VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
     }
 }
@@ -0,0 +1,80 @@
+package com.dipika.kalakriti2.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dipika.kalakriti2.utils.TokenBucket;
+
+/**
+ * In-memory login throttling: one token bucket per account (email) and one per client IP.
+ * An attempt must get a token from both, so a single account cannot be brute forced and a
+ * single IP cannot spray many accounts. Buckets live in bounded LRU maps.
+ * A successful login gives its account token back, so only failed attempts use up an account.
+ * The IP is the servlet remote address; behind a reverse proxy Tomcat's RemoteIpValve sets it
+ * to the first untrusted hop of X-Forwarded-For (see server.tomcat.remoteip.internal-proxies).
+ */
+@Component
+public class LoginThrottle {
+
+    private final int accountBurst;
+    private final double accountPerSecond;
+    private final int ipBurst;
+    private final double ipPerSecond;
+
+    private final Map<String, TokenBucket> accounts;
+    private final Map<String, TokenBucket> ips;
+
+    public LoginThrottle(@Value("${auth.throttle.account.burst:5}") int accountBurst,
+                         @Value("${auth.throttle.account.per-minute:5}") double accountPerMinute,
+                         @Value("${auth.throttle.ip.burst:20}") int ipBurst,
+                         @Value("${auth.throttle.ip.per-minute:30}") double ipPerMinute,
+                         @Value("${auth.throttle.max-entries:100000}") int maxEntries) {
+        this.accountBurst = accountBurst;
+        this.accountPerSecond = accountPerMinute / 60;
+        this.ipBurst = ipBurst;
+        this.ipPerSecond = ipPerMinute / 60;
+        this.accounts = boundedMap(maxEntries);
+        this.ips = boundedMap(maxEntries);
+    }
+
+    // false when this account or this IP has used up its attempts for now
+    public boolean allowLogin(String email, String ip) {
+        if (!bucket(ips, ip, ipBurst, ipPerSecond).tryAcquire()) {
+            return false;
+        }
+        return email == null
+                || bucket(accounts, email.trim().toLowerCase(Locale.ROOT), accountBurst, accountPerSecond).tryAcquire();
+    }
+
+    // The password was right: refund the account token taken by allowLogin
+    public void loginSucceeded(String email) {
+        if (email != null) {
+            bucket(accounts, email.trim().toLowerCase(Locale.ROOT), accountBurst, accountPerSecond).refund();
+        }
+    }
+
+    // Sign ups only count against the IP (every sign up hashes a password)
+    public boolean allowSignup(String ip) {
+        return bucket(ips, ip, ipBurst, ipPerSecond).tryAcquire();
+    }
+
+    private TokenBucket bucket(Map<String, TokenBucket> buckets, String key, int burst, double perSecond) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(key != null ? key : "", k -> new TokenBucket(burst, perSecond));
+        }
+    }
+
+    private static Map<String, TokenBucket> boundedMap(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.dipika.kalakriti2.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import com.dipika.kalakriti2.utils.MailTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads templates/mail/<name>.<lang>.html once at startup and renders them.
+ * Supported languages are English (default) and Marathi. currentLanguage() reads the request
+ * locale (Accept-Language); orders keep the customer's language from the request that placed
+ * them, so status emails triggered by an admin still use it. Rendering reuses a per-thread buffer.
+ */
+@Slf4j
+@Service
+public class MailTemplateService {
+
+    public static final String ENGLISH = "en";
+    public static final String MARATHI = "mr";
+
+    private static final String TEMPLATE_PATTERN = "classpath:templates/mail/*.html";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Map<String, MailTemplate> templates = new HashMap<>();
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    public MailTemplateService() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_PATTERN);
+        for (Resource resource : resources) {
+            String fileName = resource.getFilename();
+            if (fileName == null) {
+                continue;
+            }
+            String key = fileName.substring(0, fileName.length() - ".html".length());
+            try (InputStream in = resource.getInputStream()) {
+                templates.put(key, MailTemplate.compile(key, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+            }
+        }
+        log.info("Loaded {} mail templates", templates.size());
+    }
+
+    // Language of the current request: Marathi when asked for, English otherwise
+    public String currentLanguage() {
+        Locale locale = LocaleContextHolder.getLocale();
+        return MARATHI.equals(locale.getLanguage()) ? MARATHI : ENGLISH;
+    }
+
+    public String render(String name, String language, Map<String, String> values) {
+        MailTemplate template = template(name, language);
+
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(template.getSizeHint() + 1024);
+        template.renderTo(buffer, values);
+        String rendered = buffer.toString();
+
+        // Don't keep an unusually large buffer alive on this thread
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    // Render a fragment (e.g. one table row) onto a caller's buffer
+    public void renderTo(StringBuilder out, String name, String language, Map<String, String> values) {
+        template(name, language).renderTo(out, values);
+    }
+
+    private MailTemplate template(String name, String language) {
+        MailTemplate template = templates.get(name + "." + language);
+        if (template == null) {
+            template = templates.get(name + "." + ENGLISH);
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown mail template: " + name);
+        }
+        return template;
+    }
+}
@@ -0,0 +1,260 @@
+package com.dipika.kalakriti2.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dipika.kalakriti2.dto.RevenuePointDto;
+import com.dipika.kalakriti2.entity.Order;
+import com.dipika.kalakriti2.entity.OrderItem;
+import com.dipika.kalakriti2.entity.OrderRollup;
+import com.dipika.kalakriti2.entity.ServiceItem;
+import com.dipika.kalakriti2.repository.OrderRepository;
+import com.dipika.kalakriti2.repository.OrderRollupRepository;
+import com.dipika.kalakriti2.repository.ServiceItemRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hourly and daily order rollups (order count, revenue, items sold, revenue per category).
+ * Updated when an order is placed, cancelled / un-cancelled or deleted, so dashboard charts read
+ * pre-aggregated rows instead of scanning orders. Cancelled orders are not counted.
+ * rebuildAll() recomputes the table from the orders (first start, or on demand by an admin).
+ */
+@Slf4j
+@Service
+public class OrderRollupService {
+
+    private static final String CANCELLED = "CANCELLED";
+    private static final String UNCATEGORIZED = "UNCATEGORIZED";
+
+    // Widest range one series request may cover
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    private static final Duration MAX_DAILY_RANGE = Duration.ofDays(731);
+
+    // Orders loaded per query while rebuilding
+    private static final int REBUILD_CHUNK_SIZE = 500;
+
+    @Autowired
+    private OrderRollupRepository rollupRepository;
+
+    @Autowired
+    private ServiceItemRepository serviceItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // initializeRollups() runs outside the proxy, so it opens its transaction itself
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public void orderPlaced(Order order) {
+        if (!CANCELLED.equalsIgnoreCase(order.getStatus())) {
+            apply(order, 1);
+        }
+    }
+
+    @Transactional
+    public void statusChanged(Order order, String oldStatus, String newStatus) {
+        boolean wasCounted = !CANCELLED.equalsIgnoreCase(oldStatus);
+        boolean isCounted = !CANCELLED.equalsIgnoreCase(newStatus);
+        if (wasCounted && !isCounted) {
+            apply(order, -1);
+        } else if (!wasCounted && isCounted) {
+            apply(order, 1);
+        }
+    }
+
+    // Take a deleted order back out of its buckets (call before the order is deleted)
+    @Transactional
+    public void orderDeleted(Order order) {
+        if (!CANCELLED.equalsIgnoreCase(order.getStatus())) {
+            apply(order, -1);
+        }
+    }
+
+    // Add (sign = 1) or remove (sign = -1) one order from its hour and day buckets
+    private void apply(Order order, int sign) {
+        if (order.getCreatedAt() == null) {
+            return;
+        }
+        List<OrderItem> items = order.getItems() != null ? order.getItems() : List.of();
+        forEachDelta(order, findCategories(items), (granularity, bucketStart, category, orderCount, revenue, itemsSold) ->
+                rollupRepository.applyDelta(granularity, bucketStart, category,
+                        sign * orderCount, sign * revenue, sign * itemsSold));
+    }
+
+    // The contribution of one order to each of its buckets (totals and per category)
+    private void forEachDelta(Order order, Map<Long, String> categories, DeltaConsumer consumer) {
+        List<OrderItem> items = order.getItems() != null ? order.getItems() : List.of();
+        long itemsSold = 0;
+        Map<String, Double> categoryRevenue = new HashMap<>();
+        Map<String, Long> categoryItems = new HashMap<>();
+
+        for (OrderItem item : items) {
+            int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+            double price = item.getPrice() != null ? item.getPrice() : 0;
+            String category = categories.getOrDefault(item.getServiceId(), UNCATEGORIZED);
+
+            itemsSold += quantity;
+            categoryRevenue.merge(category, price * quantity, Double::sum);
+            categoryItems.merge(category, (long) quantity, Long::sum);
+        }
+
+        double revenue = order.getTotalPrice() != null ? order.getTotalPrice() : 0;
+
+        for (String granularity : List.of(OrderRollup.HOUR, OrderRollup.DAY)) {
+            LocalDateTime bucketStart = bucketStart(order.getCreatedAt(), granularity);
+            consumer.accept(granularity, bucketStart, OrderRollup.ALL_CATEGORIES, 1, revenue, itemsSold);
+
+            for (Map.Entry<String, Double> entry : categoryRevenue.entrySet()) {
+                consumer.accept(granularity, bucketStart, entry.getKey(),
+                        1, entry.getValue(), categoryItems.get(entry.getKey()));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface DeltaConsumer {
+        void accept(String granularity, LocalDateTime bucketStart, String category,
+                    long orderCount, double revenue, long itemsSold);
+    }
+
+    /**
+     * Recompute all rollups from the orders table, e.g. for orders placed before rollups existed.
+     * Orders are read in id order, a chunk at a time; the buckets are summed in memory and
+     * replace the table in the same transaction.
+     */
+    @Transactional
+    public int rebuildAll() {
+        Map<Long, String> categories = new HashMap<>();
+        for (ServiceItem service : serviceItemRepository.findAll()) {
+            if (service.getCategory() != null) {
+                categories.put(service.getServiceId(), service.getCategory());
+            }
+        }
+
+        Map<String, OrderRollup> rollups = new HashMap<>();
+        Long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = orderRepository.findIdsAfter(afterId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Order order : orderRepository.findAllWithItemsByIdIn(ids)) {
+                if (order.getCreatedAt() == null || CANCELLED.equalsIgnoreCase(order.getStatus())) {
+                    continue;
+                }
+                forEachDelta(order, categories, (granularity, bucketStart, category, orderCount, revenue, itemsSold) -> {
+                    OrderRollup rollup = rollups.computeIfAbsent(granularity + "|" + bucketStart + "|" + category, key -> {
+                        OrderRollup created = new OrderRollup();
+                        created.setGranularity(granularity);
+                        created.setBucketStart(bucketStart);
+                        created.setCategory(category);
+                        return created;
+                    });
+                    rollup.setOrderCount(rollup.getOrderCount() + orderCount);
+                    rollup.setRevenue(rollup.getRevenue() + revenue);
+                    rollup.setItemsSold(rollup.getItemsSold() + itemsSold);
+                });
+            }
+            afterId = ids.get(ids.size() - 1);
+            entityManager.clear(); // keep only the current chunk in the persistence context
+        } while (ids.size() == REBUILD_CHUNK_SIZE);
+
+        rollupRepository.deleteAllInBatch();
+        rollupRepository.saveAll(rollups.values());
+        log.info("Rebuilt {} order rollup buckets", rollups.size());
+        return rollups.size();
+    }
+
+    // First start with this table: build it from the existing orders
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeRollups() {
+        if (rollupRepository.count() == 0 && orderRepository.count() > 0) {
+            transactionTemplate.execute(status -> rebuildAll());
+        }
+    }
+
+    private Map<Long, String> findCategories(List<OrderItem> items) {
+        Set<Long> serviceIds = new HashSet<>();
+        for (OrderItem item : items) {
+            if (item.getServiceId() != null) {
+                serviceIds.add(item.getServiceId());
+            }
+        }
+
+        Map<Long, String> categories = new HashMap<>();
+        for (ServiceItem service : serviceItemRepository.findAllById(serviceIds)) {
+            if (service.getCategory() != null) {
+                categories.put(service.getServiceId(), service.getCategory());
+            }
+        }
+        return categories;
+    }
+
+    private LocalDateTime bucketStart(LocalDateTime time, String granularity) {
+        return OrderRollup.HOUR.equals(granularity)
+                ? time.truncatedTo(ChronoUnit.HOURS)
+                : time.truncatedTo(ChronoUnit.DAYS);
+    }
+
+    // Chart series for [from, to] (whole days), one point per bucket that has orders
+    @Transactional(readOnly = true)
+    public List<RevenuePointDto> getSeries(LocalDate from, LocalDate to, String granularity) {
+        String unit = granularity == null ? OrderRollup.DAY : granularity.toUpperCase();
+        if (!OrderRollup.HOUR.equals(unit) && !OrderRollup.DAY.equals(unit)) {
+            throw new IllegalArgumentException("granularity must be HOUR or DAY");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        Duration maxRange = OrderRollup.HOUR.equals(unit) ? MAX_HOURLY_RANGE : MAX_DAILY_RANGE;
+        if (Duration.between(start, end).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("Range too large for " + unit + " granularity (max "
+                    + maxRange.toDays() + " days)");
+        }
+
+        Map<LocalDateTime, RevenuePointDto> points = new LinkedHashMap<>();
+        for (OrderRollup rollup : rollupRepository
+                .findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+                        unit, start, end)) {
+
+            RevenuePointDto point = points.computeIfAbsent(rollup.getBucketStart(), RevenuePointDto::new);
+            if (OrderRollup.ALL_CATEGORIES.equals(rollup.getCategory())) {
+                point.setOrderCount(rollup.getOrderCount());
+                point.setRevenue(rollup.getRevenue());
+                point.setItemsSold(rollup.getItemsSold());
+            } else {
+                point.getCategoryRevenue().put(rollup.getCategory(), rollup.getRevenue());
+            }
+        }
+        return new ArrayList<>(points.values());
+    }
+}
@@ -1,27 +1,158 @@
 package com.dipika.kalakriti2.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import com.dipika.kalakriti2.entity.Order;
 import com.dipika.kalakriti2.entity.OrderItem;
 import com.dipika.kalakriti2.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Optional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    // Upper bound for one page of a user's order history
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Admin order listing: default and maximum page size
+    public static final int ADMIN_PAGE_SIZE = 50;
+    public static final int ADMIN_MAX_PAGE_SIZE = 200;
+
+    // Orders loaded per round trip while streaming an export
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    // Statuses an admin may set in bulk
+    private static final Set<String> ORDER_STATUSES = Set.of("PLACED", "SHIPPED", "DELIVERED", "CANCELLED");
+
     @Autowired
     private  OrderRepository orderrepository;
+
+    @Autowired
+    private PurchaseHistoryCache purchaseHistoryCache;
+
+    @Autowired
+    private OrderRollupService orderRollupService;
+
+    @Autowired
+    private MailTemplateService mailTemplateService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
     
- // ✅ Fetch all orders (for admin)
-    public List<Order> getAllOrders() {
-        return orderrepository.findAll();
+ // ✅ Fetch one keyset page of orders (for admin), newest first.
+    // status / paymentStatus are optional filters; cursorCreatedAt / cursorId are the
+    // createdAt and id of the last order of the previous page.
+    public List<Order> getAllOrders(String status, String paymentStatus, int size,
+                                    LocalDateTime cursorCreatedAt, Long cursorId) {
+        int pageSize = Math.max(1, Math.min(size, ADMIN_MAX_PAGE_SIZE));
+        return findPage(status, paymentStatus, pageSize, cursorCreatedAt, cursorId);
+    }
+
+    private List<Order> findPage(String status, String paymentStatus, int pageSize,
+                                 LocalDateTime cursorCreatedAt, Long cursorId) {
+        List<Long> ids = keysetPageIds(pageSize, cursorCreatedAt, cursorId,
+                (createdAt, id, page) -> orderrepository.findPageIds(status, paymentStatus, createdAt, id, page),
+                (id, page) -> orderrepository.findUndatedPageIds(status, paymentStatus, id, page));
+        return loadInOrder(ids);
+    }
+
+    private interface DatedPage {
+        List<Long> ids(LocalDateTime cursorCreatedAt, Long cursorId, Pageable page);
+    }
+
+    private interface UndatedPage {
+        List<Long> ids(Long cursorId, Pageable page);
+    }
+
+    // Keyset order is (createdAt DESC, id DESC) for orders with a createdAt, followed by legacy
+    // orders without one by id DESC. A cursor with an id but no createdAt points into that
+    // second part, so a page boundary on such a row neither repeats nor skips orders.
+    private List<Long> keysetPageIds(int pageSize, LocalDateTime cursorCreatedAt, Long cursorId,
+                                     DatedPage dated, UndatedPage undated) {
+        List<Long> ids = new ArrayList<>(pageSize);
+        boolean inUndatedPart = cursorCreatedAt == null && cursorId != null;
+        if (!inUndatedPart) {
+            ids.addAll(dated.ids(cursorCreatedAt, cursorId != null ? cursorId : Long.MAX_VALUE,
+                    PageRequest.of(0, pageSize)));
+            if (ids.size() == pageSize) {
+                return ids;
+            }
+            cursorId = null; // dated orders exhausted, continue with the undated ones
+        }
+        ids.addAll(undated.ids(cursorId != null ? cursorId : Long.MAX_VALUE,
+                PageRequest.of(0, pageSize - ids.size())));
+        return ids;
+    }
+
+    // Orders with items for these ids, in the order of the ids
+    private List<Order> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Order> byId = new HashMap<>();
+        for (Order order : orderrepository.findAllWithItemsByIdIn(ids)) {
+            byId.put(order.getId(), order);
+        }
+        List<Order> orders = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Order order = byId.get(id);
+            if (order != null) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    // ✅ Stream every matching order as a JSON array, one chunk at a time.
+    // Memory stays at one chunk no matter how many orders exist.
+    public void exportOrders(String status, String paymentStatus, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+
+            LocalDateTime cursorCreatedAt = null;
+            Long cursorId = null;
+            List<Order> chunk;
+            do {
+                chunk = findPage(status, paymentStatus, EXPORT_CHUNK_SIZE, cursorCreatedAt, cursorId);
+                for (Order order : chunk) {
+                    objectMapper.writeValue(json, order);
+                }
+                json.flush();
+
+                if (!chunk.isEmpty()) {
+                    // A null createdAt moves the cursor into the legacy (id only) part
+                    Order last = chunk.get(chunk.size() - 1);
+                    cursorCreatedAt = last.getCreatedAt();
+                    cursorId = last.getId();
+                }
+                entityManager.clear(); // don't keep exported orders in the persistence context
+            } while (chunk.size() == EXPORT_CHUNK_SIZE);
+
+            json.writeEndArray();
+        }
     }
 
     // ✅ Fetch a single order by ID
@@ -29,6 +160,7 @@ public class OrderService {
         return orderrepository.findById(id);
     }
 
+    @Transactional
     public Order placeOrder(Order order) {
 
         // ✅ link items to parent order
@@ -38,35 +170,76 @@ public class OrderService {
             }
         }
 
-        return orderrepository.save(order);
+        // ✅ Later status emails are sent from the admin's request; keep the customer's language
+        order.setLanguage(mailTemplateService.currentLanguage());
+
+        Order savedOrder = orderrepository.save(order);
+        orderRollupService.orderPlaced(savedOrder);
+        purchaseHistoryCache.orderPlaced(savedOrder);
+        return savedOrder;
     }
     
- // Get all orders for a user
+ // Get all orders for a user (newest first, items loaded in the same query)
     public List<Order> getOrdersByUserId(Long userId) {
-        return orderrepository.findAll()
-                .stream()
-                .filter(o -> o.getUserId() != null && o.getUserId().equals(userId))
-                .collect(Collectors.toList());
+        return orderrepository.findByUserIdWithItems(userId);
+    }
+
+    // Get one keyset page of a user's orders (newest first).
+    // cursorCreatedAt / cursorId are the createdAt and id of the last order of the previous page.
+    public List<Order> getOrdersByUserId(Long userId, int size,
+                                         LocalDateTime cursorCreatedAt, Long cursorId) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Long> ids = keysetPageIds(pageSize, cursorCreatedAt, cursorId,
+                (createdAt, id, page) -> orderrepository.findPageIdsByUserId(userId, createdAt, id, page),
+                (id, page) -> orderrepository.findUndatedPageIdsByUserId(userId, id, page));
+        return loadInOrder(ids);
     }
 
-    // Update order status
+    // Update order status (one of ORDER_STATUSES)
+    @Transactional
     public Order updateStatus(Long orderId, String status) {
+        if (!ORDER_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Unknown status '" + status + "', expected one of " + ORDER_STATUSES);
+        }
         Order order = orderrepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
+        String oldStatus = order.getStatus();
         order.setStatus(status);
-        return orderrepository.save(order);
+        Order savedOrder = orderrepository.save(order);
+        orderRollupService.statusChanged(savedOrder, oldStatus, status);
+        return savedOrder;
     }
+    // Update the status of many orders in one transaction (admin bulk action).
+    // Ids that do not exist are simply not part of the returned list.
+    @Transactional
+    public List<Order> updateStatuses(List<Long> orderIds, String status) {
+        if (!ORDER_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Unknown status '" + status + "', expected one of " + ORDER_STATUSES);
+        }
+        List<Order> orders = orderrepository.findAllWithItemsByIdIn(orderIds);
+        for (Order order : orders) {
+            String oldStatus = order.getStatus();
+            order.setStatus(status);
+            orderRollupService.statusChanged(order, oldStatus, status);
+        }
+        return orderrepository.saveAll(orders);
+    }
+
     // ✅ Save a new order
     public Order saveOrder(Order order) {
         return orderrepository.save(order);
     }
 
-    // ✅ Delete an order
+    // ✅ Delete an order (and take it out of the dashboard rollups)
+    @Transactional
     public boolean deleteOrder(Long id) {
-        if (orderrepository.existsById(id)) {
-            orderrepository.deleteById(id);
-            return true;
-        }
-        return false;
+        return orderrepository.findById(id)
+                .map(order -> {
+                    orderRollupService.orderDeleted(order);
+                    orderrepository.delete(order);
+                    purchaseHistoryCache.evict(order.getUserId());
+                    return true;
+                })
+                .orElse(false);
     }
 }
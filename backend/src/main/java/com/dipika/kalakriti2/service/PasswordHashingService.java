@@ -0,0 +1,88 @@
+package com.dipika.kalakriti2.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt on a small dedicated pool instead of on Tomcat request threads.
+ * At most auth.hashing.workers hashes run at once, a short queue absorbs bursts, and anything
+ * beyond that is rejected right away with IllegalStateException (callers answer 503), so a
+ * flood of login attempts cannot take every core away from the rest of the site.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor workers;
+
+    public PasswordHashingService(
+            @Value("${auth.hashing.workers:0}") int workerCount,
+            @Value("${auth.hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${auth.hashing.timeout-ms:5000}") long timeoutMillis) {
+        // 0 = half of the cores, so hashing never competes with all request threads
+        int threads = workerCount > 0 ? workerCount : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public String encode(String rawPassword) {
+        return await(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || encodedPassword.isEmpty()) {
+            return false; // e.g. OAuth users without a password: nothing to hash
+        }
+        return await(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T await(java.util.concurrent.Callable<T> task) {
+        Future<T> future;
+        try {
+            future = workers.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Server is busy, please retry shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("Server is busy, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while checking password", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.dipika.kalakriti2.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.dipika.kalakriti2.entity.Order;
+import com.dipika.kalakriti2.entity.OrderItem;
+import com.dipika.kalakriti2.repository.OrderItemRepository;
+
+/**
+ * Per-user sets of purchased / not purchased artwork ids, used for "verified purchase" checks.
+ * Unknown artworks fall back to one EXISTS query and the answer is remembered;
+ * new orders add their ids directly, so repeat checks never touch the database.
+ * Sets are sparse (memory follows the number of answers, not the size of the ids) and the
+ * remembered "not purchased" answers are capped per user.
+ * Changes from a write (new or deleted order) are applied after its transaction commits, so a
+ * rolled back order is never marked purchased and a concurrent check cannot cache the old state.
+ */
+@Component
+public class PurchaseHistoryCache {
+
+    // Users kept in memory (least recently used are dropped first)
+    private static final int MAX_USERS = 10_000;
+
+    // Remembered "not purchased" answers per user; beyond this they are simply queried again
+    private static final int MAX_MISSES_PER_USER = 256;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private final Map<Long, Purchases> usersCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Purchases> eldest) {
+                    return size() > MAX_USERS;
+                }
+            });
+
+    public boolean hasPurchased(Long userId, Long serviceId) {
+        if (userId == null || serviceId == null) {
+            return false;
+        }
+        Purchases purchases = usersCache.computeIfAbsent(userId, id -> new Purchases());
+        Boolean cached = purchases.lookup(serviceId);
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean purchased = orderItemRepository.existsByOrder_UserIdAndServiceId(userId, serviceId);
+        purchases.remember(serviceId, purchased);
+        return purchased;
+    }
+
+    // Mark the items of a newly placed order as purchased (after commit when called inside a transaction)
+    public void orderPlaced(Order order) {
+        Long userId = order.getUserId();
+        if (userId == null || order.getItems() == null) {
+            return;
+        }
+        List<Long> serviceIds = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            if (item.getServiceId() != null) {
+                serviceIds.add(item.getServiceId());
+            }
+        }
+        afterCommit(() -> {
+            Purchases purchases = usersCache.get(userId);
+            if (purchases == null) {
+                return; // nothing cached yet, the next check will query
+            }
+            serviceIds.forEach(purchases::markPurchased);
+        });
+    }
+
+    // Forget a user's cached answers (e.g. after one of their orders was deleted)
+    public void evict(Long userId) {
+        if (userId != null) {
+            afterCommit(() -> usersCache.remove(userId));
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static class Purchases {
+        private final Set<Long> purchased = new HashSet<>();
+        private final Set<Long> notPurchased = new HashSet<>();
+
+        synchronized Boolean lookup(Long serviceId) {
+            if (purchased.contains(serviceId)) {
+                return true;
+            }
+            return notPurchased.contains(serviceId) ? false : null;
+        }
+
+        // Keep an answer from the database, unless a newer order already marked this artwork
+        synchronized void remember(Long serviceId, boolean isPurchased) {
+            if (isPurchased) {
+                purchased.add(serviceId);
+            } else if (!purchased.contains(serviceId) && notPurchased.size() < MAX_MISSES_PER_USER) {
+                notPurchased.add(serviceId);
+            }
+        }
+
+        synchronized void markPurchased(Long serviceId) {
+            notPurchased.remove(serviceId);
+            purchased.add(serviceId);
+        }
+    }
+}
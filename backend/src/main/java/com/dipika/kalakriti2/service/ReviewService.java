@@ -2,17 +2,14 @@ package com.dipika.kalakriti2.service;
 
 import com.dipika.kalakriti2.dto.ReviewRequest;
 import com.dipika.kalakriti2.dto.ReviewResponse;
-import com.dipika.kalakriti2.entity.Order;
-import com.dipika.kalakriti2.entity.OrderItem;
 import com.dipika.kalakriti2.entity.Review;
 import com.dipika.kalakriti2.entity.UserEntity;
-import com.dipika.kalakriti2.repository.OrderRepository;
 import com.dipika.kalakriti2.repository.ReviewRepository;
 import com.dipika.kalakriti2.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,6 +18,11 @@ import java.util.stream.Collectors;
 @Service
 public class ReviewService {
 
+    // Max artworks per batch stats request (one catalog grid page)
+    public static final int MAX_STATS_BATCH = 100;
+
+    private static final String ALL_REVIEWS_KEY = "reviews";
+
     @Autowired
     private ReviewRepository reviewRepository;
 
@@ -28,9 +30,16 @@ public class ReviewService {
     private UserRepository userRepository;
 
     @Autowired
-    private OrderRepository orderRepository;
+    private PurchaseHistoryCache purchaseHistoryCache;
+
+    @Autowired
+    private ReviewSummaryService reviewSummaryService;
+
+    @Autowired
+    private ContentVersions contentVersions;
 
     // Create a new review
+    @Transactional
     public ReviewResponse createReview(Long userId, ReviewRequest request) {
         // Validate rating
         if (request.getRating() < 1 || request.getRating() > 5) {
@@ -61,6 +70,8 @@ public class ReviewService {
         review.setVerifiedPurchase(isVerifiedPurchase);
 
         Review savedReview = reviewRepository.save(review);
+        reviewSummaryService.reviewAdded(savedReview.getServiceId(), savedReview.getRating());
+        contentVersions.bump(serviceKey(savedReview.getServiceId()));
 
         return mapToResponse(savedReview);
     }
@@ -83,48 +94,45 @@ public class ReviewService {
 
     // Get review statistics for an artwork
     public Map<String, Object> getReviewStats(Long serviceId) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        Double avgRating = reviewRepository.getAverageRatingByServiceId(serviceId);
-        Long totalReviews = reviewRepository.countByServiceId(serviceId);
-        
-        // Count reviews by rating
-        Map<Integer, Long> ratingDistribution = new HashMap<>();
-        for (int i = 1; i <= 5; i++) {
-            Long count = (long) reviewRepository.findByServiceIdAndRatingOrderByCreatedAtDesc(serviceId, i).size();
-            ratingDistribution.put(i, count);
-        }
-
-        stats.put("averageRating", avgRating != null ? Math.round(avgRating * 10.0) / 10.0 : 0.0);
-        stats.put("totalReviews", totalReviews);
-        stats.put("ratingDistribution", ratingDistribution);
+        return getReviewStats(List.of(serviceId)).get(serviceId);
+    }
 
-        return stats;
+    // Get review statistics for many artworks at once (primary-key lookups on review_summary)
+    public Map<Long, Map<String, Object>> getReviewStats(List<Long> serviceIds) {
+        if (serviceIds.size() > MAX_STATS_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_STATS_BATCH + " artworks per request");
+        }
+        return reviewSummaryService.getStats(serviceIds);
     }
 
     // Mark review as helpful
+    @Transactional
     public ReviewResponse markHelpful(Long reviewId) {
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new IllegalArgumentException("Review not found"));
-        
-        review.setHelpfulCount(review.getHelpfulCount() + 1);
-        Review updatedReview = reviewRepository.save(review);
-        
-        return mapToResponse(updatedReview);
+        if (reviewRepository.incrementHelpfulCount(reviewId) == 0) {
+            throw new IllegalArgumentException("Review not found");
+        }
+        return votedResponse(reviewId);
     }
 
     // Mark review as not helpful
+    @Transactional
     public ReviewResponse markNotHelpful(Long reviewId) {
+        if (reviewRepository.incrementNotHelpfulCount(reviewId) == 0) {
+            throw new IllegalArgumentException("Review not found");
+        }
+        return votedResponse(reviewId);
+    }
+
+    // Vote counts are part of the review list, so its ETag changes too
+    private ReviewResponse votedResponse(Long reviewId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found"));
-        
-        review.setNotHelpfulCount(review.getNotHelpfulCount() + 1);
-        Review updatedReview = reviewRepository.save(review);
-        
-        return mapToResponse(updatedReview);
+        contentVersions.bump(serviceKey(review.getServiceId()));
+        return mapToResponse(review);
     }
 
     // Update a review
+    @Transactional
     public ReviewResponse updateReview(Long userId, Long reviewId, ReviewRequest request) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found"));
@@ -139,15 +147,19 @@ public class ReviewService {
             throw new IllegalArgumentException("Rating must be between 1 and 5");
         }
 
+        int oldRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         review.setReviewImage(request.getReviewImage());
 
         Review updatedReview = reviewRepository.save(review);
+        reviewSummaryService.ratingChanged(updatedReview.getServiceId(), oldRating, updatedReview.getRating());
+        contentVersions.bump(serviceKey(updatedReview.getServiceId()));
         return mapToResponse(updatedReview);
     }
 
     // Delete a review
+    @Transactional
     public void deleteReview(Long userId, Long reviewId) {
         Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("Review not found"));
@@ -158,21 +170,13 @@ public class ReviewService {
         }
 
         reviewRepository.delete(review);
+        reviewSummaryService.reviewRemoved(review.getServiceId(), review.getRating());
+        contentVersions.bump(serviceKey(review.getServiceId()));
     }
 
     // Check if user has purchased this artwork
     private boolean checkVerifiedPurchase(Long userId, Long serviceId) {
-        List<Order> userOrders = orderRepository.findByUserId(userId);
-        
-        for (Order order : userOrders) {
-            for (OrderItem item : order.getItems()) {
-                if (item.getServiceId().equals(serviceId)) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
+        return purchaseHistoryCache.hasPurchased(userId, serviceId);
     }
 
     // Map Review entity to ReviewResponse DTO
@@ -199,4 +203,20 @@ public class ReviewService {
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
+
+    // Recompute all rating summaries from the reviews table (for admin)
+    public int rebuildReviewSummaries() {
+        int rebuilt = reviewSummaryService.rebuildAll();
+        contentVersions.bump(ALL_REVIEWS_KEY);
+        return rebuilt;
+    }
+
+    // ETag for the reviews and stats of one artwork
+    public String getReviewsEtag(Long serviceId) {
+        return contentVersions.etag(ALL_REVIEWS_KEY, serviceKey(serviceId));
+    }
+
+    private static String serviceKey(Long serviceId) {
+        return "reviews:service:" + serviceId;
+    }
 }
@@ -0,0 +1,130 @@
+package com.dipika.kalakriti2.service;
+
+import com.dipika.kalakriti2.entity.ReviewSummary;
+import com.dipika.kalakriti2.repository.ReviewRepository;
+import com.dipika.kalakriti2.repository.ReviewSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the review_summary table (count, rating sum and 1-5 star histogram per artwork).
+ * Review writes apply deltas in the same transaction, so stats reads are a primary-key lookup.
+ */
+@Service
+@Slf4j
+public class ReviewSummaryService {
+
+    @Autowired
+    private ReviewSummaryRepository summaryRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    // initializeSummaries() runs outside the proxy, so it opens its transaction itself
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Record a new review
+    @Transactional
+    public void reviewAdded(Long serviceId, int rating) {
+        applyDelta(serviceId, rating, 1);
+    }
+
+    // Record a removed review
+    @Transactional
+    public void reviewRemoved(Long serviceId, int rating) {
+        applyDelta(serviceId, rating, -1);
+    }
+
+    // Record a rating change on an existing review
+    @Transactional
+    public void ratingChanged(Long serviceId, int oldRating, int newRating) {
+        if (oldRating == newRating) {
+            return;
+        }
+        ReviewSummary delta = new ReviewSummary(serviceId);
+        delta.addRating(oldRating, -1);
+        delta.addRating(newRating, 1);
+        save(delta);
+    }
+
+    private void applyDelta(Long serviceId, int rating, long delta) {
+        ReviewSummary summary = new ReviewSummary(serviceId);
+        summary.addRating(rating, delta);
+        save(summary);
+    }
+
+    private void save(ReviewSummary delta) {
+        summaryRepository.applyDelta(
+                delta.getServiceId(),
+                delta.getReviewCount(),
+                delta.getRatingSum(),
+                delta.getOneStar(),
+                delta.getTwoStar(),
+                delta.getThreeStar(),
+                delta.getFourStar(),
+                delta.getFiveStar());
+    }
+
+    // Stats for each requested artwork (artworks without reviews get zeroed stats)
+    @Transactional(readOnly = true)
+    public Map<Long, Map<String, Object>> getStats(List<Long> serviceIds) {
+        Map<Long, ReviewSummary> summaries = new LinkedHashMap<>();
+        for (Long serviceId : serviceIds) {
+            summaries.put(serviceId, new ReviewSummary(serviceId));
+        }
+        for (ReviewSummary summary : summaryRepository.findAllById(summaries.keySet())) {
+            summaries.put(summary.getServiceId(), summary);
+        }
+
+        Map<Long, Map<String, Object>> result = new LinkedHashMap<>();
+        summaries.forEach((serviceId, summary) -> result.put(serviceId, toStats(summary)));
+        return result;
+    }
+
+    // Build the stats response (average, total, distribution) from a summary row
+    private Map<String, Object> toStats(ReviewSummary summary) {
+        Map<Integer, Long> ratingDistribution = new HashMap<>();
+        for (int i = 1; i <= 5; i++) {
+            ratingDistribution.put(i, summary.getStarCount(i));
+        }
+
+        long totalReviews = summary.getReviewCount();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("averageRating", totalReviews > 0
+                ? Math.round((double) summary.getRatingSum() / totalReviews * 10.0) / 10.0
+                : 0.0);
+        stats.put("totalReviews", totalReviews);
+        stats.put("ratingDistribution", ratingDistribution);
+        return stats;
+    }
+
+    // Recompute every summary from the raw reviews table. Rows are overwritten in place rather
+    // than deleted and re-inserted, so concurrent review writes keep applying their deltas to them.
+    @Transactional
+    public int rebuildAll() {
+        summaryRepository.deleteWithoutReviews();
+        summaryRepository.upsertAllFromReviews();
+        int rebuilt = (int) summaryRepository.count();
+        log.info("Rebuilt review summaries for {} artworks", rebuilt);
+        return rebuilt;
+    }
+
+    // First start with this table: build it from existing reviews
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSummaries() {
+        if (summaryRepository.count() == 0 && reviewRepository.count() > 0) {
+            transactionTemplate.execute(status -> rebuildAll());
+        }
+    }
+}
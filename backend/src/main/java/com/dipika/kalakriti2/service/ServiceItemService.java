@@ -1,6 +1,7 @@
 package com.dipika.kalakriti2.service;
 
 import java.util.List;
+import java.util.Locale;
 
 import org.springframework.stereotype.Service;
 
@@ -10,10 +11,19 @@ import com.dipika.kalakriti2.repository.ServiceItemRepository;
 @Service
 public class ServiceItemService {
 
+    private static final String ALL_KEY = "services:all";
+    private static final String CATEGORY_KEY = "services:category:";
+    private static final String ID_KEY = "services:id:";
+
     private final ServiceItemRepository repo;
+    private final CatalogCache catalogCache;
+    private final ContentVersions contentVersions;
 
-    public ServiceItemService(ServiceItemRepository repo) {
+    public ServiceItemService(ServiceItemRepository repo, CatalogCache catalogCache,
+                              ContentVersions contentVersions) {
         this.repo = repo;
+        this.catalogCache = catalogCache;
+        this.contentVersions = contentVersions;
     }
 
     public List<ServiceItem> getByCategory(String category) {
@@ -21,7 +31,23 @@ public class ServiceItemService {
     }
 
     public ServiceItem save(ServiceItem serviceItem) {
-        return repo.save(serviceItem);
+        // An edit may move the item out of its old category
+        if (serviceItem.getServiceId() != null) {
+            repo.findById(serviceItem.getServiceId()).ifPresent(this::evict);
+        }
+        ServiceItem saved = repo.save(serviceItem);
+        evict(saved);
+        return saved;
+    }
+
+    // Patch in the image URL once a background upload finishes (false if the item is gone).
+    // Only the image column is written, so an admin edit made during the upload is kept.
+    public boolean updateImage(Long id, String imageUrl) {
+        if (repo.updateImage(id, imageUrl) == 0) {
+            return false;
+        }
+        repo.findById(id).ifPresent(this::evict);
+        return true;
     }
 
     public List<ServiceItem> getAllServices() {
@@ -34,10 +60,51 @@ public class ServiceItemService {
     }
 
     public void deleteService(Long id) {
-        if (!repo.existsById(id)) {
-            throw new RuntimeException("Service not found with id: " + id);
-        }
+        ServiceItem item = repo.findById(id)
+                .orElseThrow(() -> new RuntimeException("Service not found with id: " + id));
         repo.deleteById(id);
+        evict(item);
+    }
+
+    // ================= Cached JSON (storefront reads) =================
+
+    public byte[] getAllServicesJson() {
+        return catalogCache.get(ALL_KEY, this::getAllServices);
+    }
+
+    public byte[] getByCategoryJson(String category) {
+        return catalogCache.get(categoryKey(category), () -> getByCategory(category));
+    }
+
+    public byte[] getServiceByIdJson(Long id) {
+        return catalogCache.get(ID_KEY + id, () -> getServiceById(id));
+    }
+
+    // ================= ETags (conditional GET) =================
+
+    public String getAllServicesEtag() {
+        return contentVersions.etag(ALL_KEY);
+    }
+
+    public String getByCategoryEtag(String category) {
+        return contentVersions.etag(categoryKey(category));
+    }
+
+    public String getServiceByIdEtag(Long id) {
+        return contentVersions.etag(ID_KEY + id);
+    }
+
+    // Drop exactly the cached responses that contain this item and bump their versions
+    private void evict(ServiceItem item) {
+        for (String key : List.of(ALL_KEY, categoryKey(item.getCategory()), ID_KEY + item.getServiceId())) {
+            catalogCache.invalidate(key);
+            contentVersions.bump(key);
+        }
+    }
+
+    // MySQL matches categories case-insensitively, so "Paintings" and "paintings" share one entry
+    private String categoryKey(String category) {
+        return CATEGORY_KEY + String.valueOf(category).toLowerCase(Locale.ROOT);
     }
 
 }
@@ -0,0 +1,127 @@
+package com.dipika.kalakriti2.service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes sure the users table has the uk_users_email / uk_users_name constraints that
+ * UserRegistrationService relies on. ddl-auto=update cannot add them to a table that already
+ * holds duplicates (it only logs the failed ALTER), so this runs once the schema update is done:
+ * duplicate names get the user id appended (the oldest account keeps the name), then the
+ * missing constraints are added.
+ * Duplicates are found by comparing with the columns' own collation (utf8mb4_0900_ai_ci ignores
+ * case and accents), so they are exactly what the unique indexes would reject.
+ * The statements run without a transaction: MySQL commits each ALTER TABLE implicitly, so a
+ * failure part way could not be rolled back anyway, and a rerun picks up where it stopped.
+ * Duplicate emails are separate accounts of one person with their own orders and passwords;
+ * they are not merged automatically. Startup fails until they are merged by hand, as it does
+ * if a constraint still cannot be added, so the app never runs without them.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // after Hibernate's schema update
+public class UserConstraintsMigration {
+
+    private static final String TABLE = "users";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Before the web server starts, so no sign up runs without the constraints
+    @PostConstruct
+    public void migrate() {
+        Set<String> existing = uniqueIndexes();
+        boolean hasEmail = contains(existing, UserRegistrationService.EMAIL_CONSTRAINT);
+        boolean hasName = contains(existing, UserRegistrationService.NAME_CONSTRAINT);
+        if (hasEmail && hasName) {
+            return;
+        }
+
+        if (!hasEmail) {
+            List<String> duplicateEmails = jdbcTemplate.queryForList(
+                    "SELECT MIN(email) FROM users WHERE email IS NOT NULL GROUP BY email HAVING COUNT(*) > 1",
+                    String.class);
+            if (!duplicateEmails.isEmpty()) {
+                throw new IllegalStateException(duplicateEmails.size() + " email addresses belong to more than one user "
+                        + "(e.g. " + duplicateEmails.subList(0, Math.min(5, duplicateEmails.size()))
+                        + "); merge these accounts, then restart to add " + UserRegistrationService.EMAIL_CONSTRAINT);
+            }
+        }
+
+        if (!hasName) {
+            renameDuplicateNames();
+        }
+        if (!hasEmail) {
+            addConstraint(UserRegistrationService.EMAIL_CONSTRAINT, "email");
+        }
+        if (!hasName) {
+            addConstraint(UserRegistrationService.NAME_CONSTRAINT, "name");
+        }
+
+        existing = uniqueIndexes();
+        if (!contains(existing, UserRegistrationService.EMAIL_CONSTRAINT)
+                || !contains(existing, UserRegistrationService.NAME_CONSTRAINT)) {
+            throw new IllegalStateException("Unique constraints on users are still missing, found: " + existing);
+        }
+    }
+
+    // Every user but the oldest of each name (equal under the column's collation) becomes "name id"
+    private void renameDuplicateNames() {
+        List<Map<String, Object>> duplicates = jdbcTemplate.queryForList(
+                "SELECT u.id, u.name FROM users u WHERE u.name IS NOT NULL AND EXISTS ("
+                        + "SELECT 1 FROM users o WHERE o.name = u.name AND o.id < u.id) ORDER BY u.id");
+        Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT LOWER(name) FROM users WHERE name IS NOT NULL", String.class));
+        for (Map<String, Object> row : duplicates) {
+            Long id = ((Number) row.get("id")).longValue();
+            String name = (String) row.get("name");
+            String renamed = name + " " + id;
+            for (int n = 2; taken.contains(renamed.toLowerCase(Locale.ROOT)); n++) {
+                renamed = name + " " + id + "-" + n;
+            }
+            taken.add(renamed.toLowerCase(Locale.ROOT));
+            jdbcTemplate.update("UPDATE users SET name = ? WHERE id = ?", renamed, id);
+            log.warn("Duplicate user name '{}': user {} renamed to '{}'", name, id, renamed);
+        }
+    }
+
+    private void addConstraint(String constraint, String column) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + constraint + " UNIQUE (" + column + ")");
+        log.info("✅ Added unique constraint {} on {}.{}", constraint, TABLE, column);
+    }
+
+    // Lower-case names of the unique indexes on users (MySQL and H2 back unique constraints with one)
+    private Set<String> uniqueIndexes() {
+        return jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            Set<String> names = new HashSet<>();
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, TABLE, true, false)) {
+                while (indexes.next()) {
+                    String name = indexes.getString("INDEX_NAME");
+                    if (name != null) {
+                        names.add(name.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return names;
+        });
+    }
+
+    private static boolean contains(Set<String> indexes, String constraint) {
+        return indexes.stream().anyMatch(index -> index.contains(constraint));
+    }
+}
@@ -0,0 +1,115 @@
+package com.dipika.kalakriti2.service;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.dipika.kalakriti2.entity.UserEntity;
+import com.dipika.kalakriti2.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates users with a single INSERT. Uniqueness of email and name is enforced by the
+ * uk_users_email / uk_users_name constraints instead of checking first, so there is no
+ * extra round trip and two concurrent sign ups cannot both get through.
+ */
+@Slf4j
+@Service
+public class UserRegistrationService {
+
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String NAME_CONSTRAINT = "uk_users_name";
+
+    // OAuth sign ins whose Google name is taken get a numbered variant; give up after this many tries
+    private static final int MAX_NAME_ATTEMPTS = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Insert a new user; IllegalArgumentException("Email already exists" / "Username already exists") on a duplicate
+    public UserEntity register(UserEntity user) {
+        // Always a new row with the default role: the role ends up in the JWT, so neither the id
+        // nor the role may come from a signup request body
+        user.setId(null);
+        user.setRole("USER");
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = violatedConstraint(e);
+            if (EMAIL_CONSTRAINT.equals(constraint)) {
+                throw new IllegalArgumentException("Email already exists");
+            }
+            if (NAME_CONSTRAINT.equals(constraint)) {
+                throw new IllegalArgumentException("Username already exists");
+            }
+            throw e;
+        }
+    }
+
+    // User for an OAuth / Google sign in: the existing one, or a new USER account.
+    // A taken display name gets a numbered suffix; a concurrent first sign in with the
+    // same email simply returns the account the other request created.
+    public UserEntity findOrCreateOAuthUser(String email, String name) {
+        Optional<UserEntity> existing = userRepository.findByEmail(email);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        String candidate = name;
+        for (int attempt = 1; ; attempt++) {
+            UserEntity user = new UserEntity();
+            user.setEmail(email);
+            user.setName(candidate);
+            user.setPassword(""); // No password for OAuth users
+            try {
+                return register(user);
+            } catch (IllegalArgumentException e) {
+                if ("Email already exists".equals(e.getMessage())) {
+                    return userRepository.findByEmail(email)
+                            .orElseThrow(() -> new IllegalStateException("User " + email + " vanished after insert conflict"));
+                }
+                if (attempt >= MAX_NAME_ATTEMPTS) {
+                    throw new IllegalStateException("Could not find a free user name for " + email);
+                }
+                candidate = name + " " + ThreadLocalRandom.current().nextInt(1000, 10000);
+                log.info("User name '{}' taken, trying '{}'", name, candidate);
+            }
+        }
+    }
+
+    // Name of the unique constraint behind a DataIntegrityViolationException (lower case), if any
+    private static String violatedConstraint(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null) {
+                return normalize(violation.getConstraintName());
+            }
+        }
+        // Fall back to the driver message, e.g. "Duplicate entry 'x' for key 'users.uk_users_email'"
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(EMAIL_CONSTRAINT)) {
+            return EMAIL_CONSTRAINT;
+        }
+        if (message.contains(NAME_CONSTRAINT)) {
+            return NAME_CONSTRAINT;
+        }
+        return null;
+    }
+
+    // MySQL reports "users.uk_users_email", other databases may quote or upper-case it
+    private static String normalize(String constraintName) {
+        String name = constraintName.toLowerCase(Locale.ROOT).replace("`", "").replace("\"", "");
+        if (name.contains(EMAIL_CONSTRAINT)) {
+            return EMAIL_CONSTRAINT;
+        }
+        if (name.contains(NAME_CONSTRAINT)) {
+            return NAME_CONSTRAINT;
+        }
+        return name;
+    }
+}
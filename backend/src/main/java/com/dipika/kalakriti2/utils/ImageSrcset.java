@@ -0,0 +1,37 @@
+package com.dipika.kalakriti2.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Responsive image sizes for catalog pictures.
+ * Catalog images live on ImageKit, which resizes, re-encodes (f-auto picks WebP/AVIF when the
+ * browser accepts it) and strips metadata on the fly from URL parameters, then caches the result
+ * on its CDN. So a srcset is just the original URL with a transformation per width.
+ */
+public final class ImageSrcset {
+
+    // thumbnail (grid tiles), medium (detail page), large (zoom / retina)
+    public static final List<Integer> WIDTHS = List.of(300, 800, 1600);
+
+    private static final int QUALITY = 80;
+
+    private ImageSrcset() {
+    }
+
+    // "300w" -> URL of the 300px variant; empty when the image can't be transformed
+    public static Map<String, String> of(String imageUrl) {
+        if (imageUrl == null || !imageUrl.contains("imagekit.io")) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> srcset = new LinkedHashMap<>();
+        String separator = imageUrl.contains("?") ? "&" : "?";
+        for (int width : WIDTHS) {
+            srcset.put(width + "w", imageUrl + separator + "tr=w-" + width + ",q-" + QUALITY + ",f-auto");
+        }
+        return srcset;
+    }
+}
@@ -0,0 +1,52 @@
+package com.dipika.kalakriti2.utils;
+
+/**
+ * Image formats accepted for uploads, recognised by their magic bytes.
+ * The file extension and the served Content-Type are taken from here, never from what the
+ * client called the file.
+ */
+public enum ImageType {
+
+    JPEG("jpg", "image/jpeg"),
+    PNG("png", "image/png"),
+    GIF("gif", "image/gif"),
+    WEBP("webp", "image/webp");
+
+    // Enough leading bytes to recognise every format above
+    public static final int MAGIC_BYTES = 12;
+
+    private final String extension;
+    private final String contentType;
+
+    ImageType(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // Format of the file starting with head[0..length), or null when it is none of these
+    public static ImageType detect(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G'
+                && head[4] == 0x0D && head[5] == 0x0A && head[6] == 0x1A && head[7] == 0x0A) {
+            return PNG;
+        }
+        if (length >= 4 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return GIF;
+        }
+        if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return WEBP;
+        }
+        return null;
+    }
+}
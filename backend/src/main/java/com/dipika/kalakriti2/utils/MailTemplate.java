@@ -0,0 +1,98 @@
+package com.dipika.kalakriti2.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A mail template parsed once into literal text and placeholders.
+ * {{name}} is replaced by the HTML-escaped value, {{{name}}} by the raw value
+ * (for fragments that were rendered from another template). Missing values render as "".
+ */
+public final class MailTemplate {
+
+    private final String name;
+    private final String[] literals;      // literals[i] comes before placeholder i
+    private final String[] placeholders;
+    private final boolean[] raw;
+    private final int sizeHint;
+
+    private MailTemplate(String name, List<String> literals, List<String> placeholders, List<Boolean> raw) {
+        this.name = name;
+        this.literals = literals.toArray(new String[0]);
+        this.placeholders = placeholders.toArray(new String[0]);
+        this.raw = new boolean[raw.size()];
+        int size = 0;
+        for (int i = 0; i < this.raw.length; i++) {
+            this.raw[i] = raw.get(i);
+        }
+        for (String literal : literals) {
+            size += literal.length();
+        }
+        this.sizeHint = size;
+    }
+
+    public static MailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            boolean triple = source.startsWith("{{{", open);
+            String closing = triple ? "}}}" : "}}";
+            int close = source.indexOf(closing, open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in mail template " + name);
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + (triple ? 3 : 2), close).trim());
+            raw.add(triple);
+            position = close + closing.length();
+        }
+        literals.add(source.substring(position));
+        return new MailTemplate(name, literals, placeholders, raw);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Rough output size, used to size the render buffer
+    public int getSizeHint() {
+        return sizeHint;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(placeholders[i]);
+            if (value != null) {
+                if (raw[i]) {
+                    out.append(value);
+                } else {
+                    escapeHtml(out, value);
+                }
+            }
+        }
+        out.append(literals[placeholders.length]);
+    }
+
+    private static void escapeHtml(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.dipika.kalakriti2.utils;
+
+/**
+ * Simple token bucket: holds up to {@code capacity} tokens and refills {@code refillPerSecond}
+ * tokens per second. Used to rate-limit outgoing work (e.g. SMTP sends).
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    // Take a token if one is available right now
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    // Take a token, waiting for the next refill when the bucket is empty
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    // Give back a token taken by tryAcquire (never above capacity)
+    public synchronized void refund() {
+        refill();
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
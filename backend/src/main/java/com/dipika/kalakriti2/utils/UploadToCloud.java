@@ -68,61 +68,132 @@
 //}
 package com.dipika.kalakriti2.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Supplier;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 @Component
 public class UploadToCloud {
 
+    private static final String FOLDER = "haircraft";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(2);
+
     @Value("${imagekit.privateKey}")
     private String privateKey;
 
+    @Value("${imagekit.uploadUrl:https://upload.imagekit.io/api/v1/files/upload}")
+    private String uploadUrl;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // One client for every upload: keeps its connection pool and TLS sessions
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
     public String uploadToCloud(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new RuntimeException("File is empty");
         }
 
+        return upload(file.getOriginalFilename(), file.getContentType(), file.getSize(), () -> {
+            try {
+                return file.getInputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Upload a file already on local disk (e.g. staged by an upload job)
+    public String uploadToCloud(Path file, String fileName, String contentType) {
+        long size;
         try {
-            String uploadUrl = "https://upload.imagekit.io/api/v1/files/upload";
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Staged file is missing: " + file, e);
+        }
 
-            // Basic Auth
-            String auth = privateKey + ":";
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
+        return upload(fileName, contentType, size, () -> {
+            try {
+                return Files.newInputStream(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Streams the file as multipart/form-data: preamble + file bytes + closing boundary.
+    // Memory use stays constant, whatever the file size.
+    private String upload(String fileName, String contentType, long size, Supplier<InputStream> content) {
+        try {
+            String boundary = "----kalakriti" + UUID.randomUUID().toString().replace("-", "");
+            String name = fileName != null ? fileName.replaceAll("[\\r\\n\"]", "_") : "upload";
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            headers.set("Authorization", "Basic " + encodedAuth);
+            byte[] preamble = (textPart(boundary, "fileName", name)
+                    + textPart(boundary, "folder", FOLDER)
+                    + "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"" + name + "\"\r\n"
+                    + "Content-Type: " + (contentType != null ? contentType : "application/octet-stream") + "\r\n\r\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            byte[] epilogue = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
 
-            // Convert file → Base64
-            String base64File = "data:" + file.getContentType() + ";base64," +
-                    Base64.getEncoder().encodeToString(file.getBytes());
+            // Known length -> plain Content-Length instead of chunked encoding
+            HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+                    HttpRequest.BodyPublishers.concat(
+                            HttpRequest.BodyPublishers.ofByteArray(preamble),
+                            HttpRequest.BodyPublishers.ofInputStream(content),
+                            HttpRequest.BodyPublishers.ofByteArray(epilogue)),
+                    preamble.length + size + epilogue.length);
 
-            MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
-            body.add("file", base64File);
-            body.add("fileName", file.getOriginalFilename());
-            body.add("folder", "haircraft");
+            // Basic Auth
+            String auth = privateKey + ":";
+            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
 
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(body, headers);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uploadUrl))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", "Basic " + encodedAuth)
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(body)
+                    .build();
 
-            RestTemplate restTemplate = new RestTemplate();
-            ResponseEntity<String> response = restTemplate.postForEntity(uploadUrl, request, String.class);
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new RuntimeException("ImageKit responded " + response.statusCode() + ": " + response.body());
+            }
 
             // Extract image URL from response
-            JsonNode jsonNode = objectMapper.readTree(response.getBody());
+            JsonNode jsonNode = objectMapper.readTree(response.body());
             return jsonNode.get("url").asText();
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Image upload interrupted", e);
         } catch (Exception e) {
-            throw new RuntimeException("Image upload failed", e);
+            throw new RuntimeException("Image upload failed: " + e.getMessage(), e);
         }
     }
+
+    private static String textPart(String boundary, String name, String value) {
+        return "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n";
+    }
 }
@@ -0,0 +1,142 @@
+package com.dipika.kalakriti2.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.dipika.kalakriti2.dto.ReviewRequest;
+import com.dipika.kalakriti2.entity.Art;
+import com.dipika.kalakriti2.entity.ServiceItem;
+import com.dipika.kalakriti2.entity.UserEntity;
+import com.dipika.kalakriti2.repository.UserRepository;
+import com.dipika.kalakriti2.service.ArtService;
+import com.dipika.kalakriti2.service.ReviewService;
+import com.dipika.kalakriti2.service.ServiceItemService;
+
+// Conditional GETs on the catalog, artwork and review endpoints: an unchanged resource answers
+// If-None-Match with 304 and no body, and every write through the services changes the ETag
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		// Own database: this context differs from the other tests' and must not drop their tables
+		registry.add("spring.datasource.url",
+				() -> "jdbc:h2:mem:conditionalget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,USER");
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ServiceItemService serviceItemService;
+
+	@Autowired
+	private ArtService artService;
+
+	@Autowired
+	private ReviewService reviewService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void matchingIfNoneMatchReturns304WithoutBody() throws Exception {
+		ServiceItem item = serviceItemService.save(serviceItem("Gond painting", "painting"));
+
+		for (String url : new String[] {"/api/services", "/api/services/category/painting",
+				"/api/services/" + item.getServiceId(), "/api/reviews/service/" + item.getServiceId()}) {
+			String etag = etag(url);
+			mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified())
+					.andExpect(header().string(HttpHeaders.ETAG, etag))
+					.andExpect(content().bytes(new byte[0]));
+		}
+	}
+
+	@Test
+	void serviceItemSaveChangesEtag() throws Exception {
+		ServiceItem item = serviceItemService.save(serviceItem("Pattachitra", "scroll"));
+		String all = etag("/api/services");
+		String category = etag("/api/services/category/scroll");
+		String single = etag("/api/services/" + item.getServiceId());
+
+		item.setPrice("3200");
+		serviceItemService.save(item);
+
+		assertChanged("/api/services", all);
+		assertChanged("/api/services/category/scroll", category);
+		assertChanged("/api/services/" + item.getServiceId(), single);
+	}
+
+	@Test
+	void artSaveChangesEtag() throws Exception {
+		artService.saveArt(new Art(null, "Kalamkari", "textile", "Hand block printed", 1800.0, null));
+		String etag = etag("/api/art");
+
+		artService.saveArt(new Art(null, "Phad", "scroll", "Painted on cloth", 5400.0, null));
+
+		assertChanged("/api/art", etag);
+	}
+
+	@Test
+	void reviewWriteChangesEtag() throws Exception {
+		ServiceItem item = serviceItemService.save(serviceItem("Dokra horse", "metal"));
+		UserEntity user = new UserEntity();
+		user.setName("etag reviewer");
+		user.setEmail("etag.reviewer@example.com");
+		user.setPassword("unused");
+		Long userId = userRepository.save(user).getId();
+
+		String reviews = "/api/reviews/service/" + item.getServiceId();
+		String stats = reviews + "/stats";
+		String reviewsEtag = etag(reviews);
+		String statsEtag = etag(stats);
+
+		reviewService.createReview(userId, new ReviewRequest(item.getServiceId(), 4, "Lovely finish", null));
+
+		assertChanged(reviews, reviewsEtag);
+		assertChanged(stats, statsEtag);
+	}
+
+	private static ServiceItem serviceItem(String name, String category) {
+		ServiceItem item = new ServiceItem();
+		item.setName(name);
+		item.setCategory(category);
+		item.setPrice("2500");
+		return item;
+	}
+
+	private String etag(String url) throws Exception {
+		String etag = mvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag, url + " sent no ETag");
+		return etag;
+	}
+
+	// The old ETag no longer matches: a full 200 with a new one
+	private void assertChanged(String url, String oldEtag) throws Exception {
+		String newEtag = mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, oldEtag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(oldEtag, newEtag, url);
+		assertEquals(newEtag, etag(url), url);
+	}
+}
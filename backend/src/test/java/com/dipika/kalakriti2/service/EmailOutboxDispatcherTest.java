@@ -0,0 +1,233 @@
+package com.dipika.kalakriti2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.dipika.kalakriti2.entity.EmailOutbox;
+import com.dipika.kalakriti2.repository.EmailOutboxRepository;
+
+// Outbox retries against a local fake SMTP server: backoff, recovery and DEAD after the last attempt
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailOutboxDispatcherTest {
+
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long RETRY_BASE_SECONDS = 30;
+
+	private static final FakeSmtpServer smtp = FakeSmtpServer.start();
+
+	@DynamicPropertySource
+	static void mailProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.mail.port", smtp::port);
+		registry.add("mail.outbox.max-attempts", () -> MAX_ATTEMPTS);
+		registry.add("mail.outbox.retry-base-seconds", () -> RETRY_BASE_SECONDS);
+		// Own database: this context differs from the other tests' and must not drop their tables
+		registry.add("spring.datasource.url",
+				() -> "jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,USER");
+	}
+
+	@AfterAll
+	static void stopServer() throws IOException {
+		smtp.close();
+	}
+
+	@Autowired
+	private EmailService emailService;
+
+	@Autowired
+	private EmailOutboxDispatcher dispatcher;
+
+	@Autowired
+	private EmailOutboxRepository outboxRepository;
+
+	@BeforeEach
+	void reset() {
+		outboxRepository.deleteAll();
+		smtp.delivered.clear();
+		smtp.available.set(true);
+	}
+
+	@Test
+	void failedEmailIsRetriedWithBackoffAndSentWhenServerRecovers() {
+		smtp.available.set(false);
+		emailService.sendReplyMail("later@example.com", "hello");
+
+		LocalDateTime before = LocalDateTime.now();
+		dispatcher.dispatch();
+
+		EmailOutbox email = outboxRepository.findAll().get(0);
+		assertEquals(EmailOutbox.PENDING, email.getStatus());
+		assertEquals(1, email.getAttempts());
+		assertNotNull(email.getLastError());
+		assertTrue(email.getNextAttemptAt().isAfter(before.plusSeconds(RETRY_BASE_SECONDS - 5)));
+		assertTrue(email.getNextAttemptAt().isBefore(before.plusSeconds(RETRY_BASE_SECONDS + 5)));
+
+		// Not due yet: the next run leaves it alone
+		smtp.available.set(true);
+		dispatcher.dispatch();
+		assertEquals(0, smtp.delivered.size());
+
+		makeDue(email.getId());
+		dispatcher.dispatch();
+
+		email = outboxRepository.findById(email.getId()).orElseThrow();
+		assertEquals(EmailOutbox.SENT, email.getStatus());
+		assertNotNull(email.getSentAt());
+		assertEquals(List.of("later@example.com"), smtp.delivered);
+	}
+
+	@Test
+	void rejectedEmailIsDeadAfterLastAttemptWithoutBlockingTheOthers() {
+		emailService.sendReplyMail("bounce@example.com", "never arrives");
+		emailService.sendReplyMail("ok@example.com", "arrives");
+
+		dispatcher.dispatch();
+		EmailOutbox bounced = outboxRepository.findAll().stream()
+				.filter(e -> e.getToEmail().equals("bounce@example.com"))
+				.findFirst().orElseThrow();
+		assertEquals(EmailOutbox.PENDING, bounced.getStatus());
+		assertEquals(List.of("ok@example.com"), smtp.delivered);
+
+		// Doubling backoff: the second failure waits twice as long as the first
+		makeDue(bounced.getId());
+		LocalDateTime before = LocalDateTime.now();
+		dispatcher.dispatch();
+		bounced = outboxRepository.findById(bounced.getId()).orElseThrow();
+		assertEquals(2, bounced.getAttempts());
+		assertTrue(bounced.getNextAttemptAt().isAfter(before.plusSeconds(2 * RETRY_BASE_SECONDS - 5)));
+
+		makeDue(bounced.getId());
+		dispatcher.dispatch();
+		bounced = outboxRepository.findById(bounced.getId()).orElseThrow();
+		assertEquals(EmailOutbox.DEAD, bounced.getStatus());
+		assertEquals(MAX_ATTEMPTS, bounced.getAttempts());
+		assertNotNull(bounced.getLastError());
+
+		// A dead email is never picked up again
+		dispatcher.dispatch();
+		assertEquals(MAX_ATTEMPTS, outboxRepository.findById(bounced.getId()).orElseThrow().getAttempts());
+		assertEquals(1, outboxRepository.countByStatus(EmailOutbox.SENT));
+		assertEquals(List.of("ok@example.com"), smtp.delivered);
+	}
+
+	private void makeDue(Long id) {
+		EmailOutbox email = outboxRepository.findById(id).orElseThrow();
+		email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		outboxRepository.save(email);
+	}
+
+	/**
+	 * Minimal SMTP server: accepts every message except for recipients containing "bounce"
+	 * (550), and answers 421 to new connections while available is false.
+	 */
+	static final class FakeSmtpServer {
+
+		final List<String> delivered = new CopyOnWriteArrayList<>();
+		final AtomicBoolean available = new AtomicBoolean(true);
+
+		private final ServerSocket socket;
+
+		private FakeSmtpServer(ServerSocket socket) {
+			this.socket = socket;
+		}
+
+		static FakeSmtpServer start() {
+			try {
+				FakeSmtpServer server = new FakeSmtpServer(new ServerSocket(0));
+				Thread thread = new Thread(server::acceptLoop, "fake-smtp");
+				thread.setDaemon(true);
+				thread.start();
+				return server;
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		int port() {
+			return socket.getLocalPort();
+		}
+
+		void close() throws IOException {
+			socket.close();
+		}
+
+		private void acceptLoop() {
+			while (!socket.isClosed()) {
+				try (Socket client = socket.accept()) {
+					handle(client);
+				} catch (IOException e) {
+					// closed, or the client hung up
+				}
+			}
+		}
+
+		private void handle(Socket client) throws IOException {
+			BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+			PrintWriter out = new PrintWriter(client.getOutputStream(), false, StandardCharsets.US_ASCII);
+			if (!available.get()) {
+				reply(out, "421 service not available");
+				return;
+			}
+			reply(out, "220 fake ESMTP");
+
+			List<String> recipients = new CopyOnWriteArrayList<>();
+			String line;
+			while ((line = in.readLine()) != null) {
+				String command = line.toUpperCase();
+				if (command.startsWith("EHLO")) {
+					reply(out, "250-fake\r\n250 OK");
+				} else if (command.startsWith("RCPT")) {
+					if (command.contains("BOUNCE")) {
+						reply(out, "550 mailbox unavailable");
+					} else {
+						recipients.add(line.substring(line.indexOf('<') + 1, line.indexOf('>')));
+						reply(out, "250 OK");
+					}
+				} else if (command.startsWith("DATA")) {
+					reply(out, "354 end with .");
+					while ((line = in.readLine()) != null && !line.equals(".")) {
+						// message body
+					}
+					delivered.addAll(recipients);
+					recipients.clear();
+					reply(out, "250 queued");
+				} else if (command.startsWith("RSET")) {
+					recipients.clear();
+					reply(out, "250 OK");
+				} else if (command.startsWith("QUIT")) {
+					reply(out, "221 bye");
+					return;
+				} else {
+					reply(out, "250 OK");
+				}
+			}
+		}
+
+		private static void reply(PrintWriter out, String response) {
+			out.print(response + "\r\n");
+			out.flush();
+		}
+	}
+}
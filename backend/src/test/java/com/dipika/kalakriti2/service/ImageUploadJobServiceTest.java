@@ -0,0 +1,315 @@
+package com.dipika.kalakriti2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dipika.kalakriti2.dto.UploadJobDto;
+import com.dipika.kalakriti2.entity.ServiceItem;
+import com.dipika.kalakriti2.repository.ServiceItemRepository;
+import com.sun.net.httpserver.HttpServer;
+
+// Background uploads against a local ImageKit stand-in: retry with backoff, all-or-nothing batches
+// and the image column patch that keeps concurrent edits
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImageUploadJobServiceTest {
+
+	private static final int QUEUE_CAPACITY = 3;
+	private static final int MAX_ATTEMPTS = 3;
+	private static final long RETRY_BACKOFF_MS = 200;
+
+	private static final ImageKitStandIn imageKit = ImageKitStandIn.start();
+	private static final Path stagingDir = createStagingDir();
+
+	@DynamicPropertySource
+	static void uploadProperties(DynamicPropertyRegistry registry) {
+		registry.add("imagekit.uploadUrl", imageKit::url);
+		registry.add("upload.workers", () -> 1);
+		registry.add("upload.queue-capacity", () -> QUEUE_CAPACITY);
+		registry.add("upload.max-attempts", () -> MAX_ATTEMPTS);
+		registry.add("upload.retry-backoff-ms", () -> RETRY_BACKOFF_MS);
+		registry.add("upload.staging-dir", stagingDir::toString);
+		// Own database: this context differs from the other tests' and must not drop their tables
+		registry.add("spring.datasource.url",
+				() -> "jdbc:h2:mem:uploadjobs;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,USER");
+	}
+
+	@AfterAll
+	static void stopServer() {
+		imageKit.close();
+	}
+
+	@Autowired
+	private ImageUploadJobService uploadJobService;
+
+	@Autowired
+	private ServiceItemService serviceItemService;
+
+	@Autowired
+	private ServiceItemRepository serviceItemRepository;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@BeforeEach
+	void reset() {
+		imageKit.reset();
+	}
+
+	@AfterEach
+	void release() {
+		imageKit.releaseAll();
+	}
+
+	@Test
+	void failedUploadIsRetriedWithBackoff() throws Exception {
+		imageKit.failuresLeft.set(2);
+
+		UploadJobDto job = uploadJobService.submit(image("retry.jpg"), null);
+		awaitFinished(job);
+
+		assertEquals(UploadJobDto.Status.DONE, job.getStatus());
+		assertEquals(MAX_ATTEMPTS, job.getAttempts());
+		assertEquals("https://ik.imagekit.test/retry.jpg", job.getUrl());
+
+		// Doubling backoff: the second wait is twice the first
+		List<Long> attempts = imageKit.attemptMillis;
+		assertEquals(3, attempts.size());
+		assertTrue(attempts.get(1) - attempts.get(0) >= RETRY_BACKOFF_MS);
+		assertTrue(attempts.get(2) - attempts.get(1) >= 2 * RETRY_BACKOFF_MS);
+		assertEquals(0, stagedFiles());
+	}
+
+	@Test
+	void uploadFailsAfterLastAttempt() throws Exception {
+		imageKit.failuresLeft.set(Integer.MAX_VALUE);
+
+		UploadJobDto job = uploadJobService.submit(image("broken.jpg"), null);
+		awaitFinished(job);
+
+		assertEquals(UploadJobDto.Status.FAILED, job.getStatus());
+		assertEquals(MAX_ATTEMPTS, job.getAttempts());
+		assertNotNull(job.getError());
+		assertEquals(MAX_ATTEMPTS, imageKit.attemptMillis.size());
+		assertEquals(0, stagedFiles());
+	}
+
+	@Test
+	void batchIsQueuedAllOrNothing() throws Exception {
+		// The only worker is busy with this one until the stand-in lets it go
+		imageKit.hold();
+		UploadJobDto busy = uploadJobService.submit(image("busy.jpg"), null);
+		assertTrue(imageKit.held.await(10, TimeUnit.SECONDS));
+
+		List<MultipartFile> tooMany = new ArrayList<>();
+		for (int i = 0; i <= QUEUE_CAPACITY; i++) {
+			tooMany.add(image("gallery-" + i + ".jpg"));
+		}
+		assertThrows(IllegalStateException.class, () -> uploadJobService.submitAll(tooMany));
+		// Nothing of the rejected batch was kept: only the busy job's file is staged
+		assertEquals(1, stagedFiles());
+
+		List<UploadJobDto> batch = uploadJobService.submitAll(tooMany.subList(0, QUEUE_CAPACITY));
+		assertEquals(QUEUE_CAPACITY, batch.size());
+		for (UploadJobDto job : batch) {
+			assertEquals(UploadJobDto.Status.QUEUED, job.getStatus());
+		}
+
+		imageKit.releaseAll();
+		awaitFinished(busy);
+		for (UploadJobDto job : batch) {
+			awaitFinished(job);
+			assertEquals(UploadJobDto.Status.DONE, job.getStatus());
+		}
+		assertEquals(1 + QUEUE_CAPACITY, imageKit.attemptMillis.size());
+		assertEquals(0, stagedFiles());
+	}
+
+	@Test
+	void addServicePatchesOnlyTheImageColumn() throws Exception {
+		imageKit.hold();
+		String jobId = mvc.perform(multipart("/api/services/addservice")
+						.file(new MockMultipartFile("image", "peacock.jpg", "image/jpeg", new byte[] {1, 2, 3}))
+						.param("name", "Peacock")
+						.param("category", "painting")
+						.param("price", "2500"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("X-Upload-Job-Id"))
+				.andReturn().getResponse().getHeader("X-Upload-Job-Id");
+		UploadJobDto job = uploadJobService.getJob(jobId);
+		ServiceItem item = serviceItemRepository.findById(job.getServiceId()).orElseThrow();
+		assertEquals(null, item.getImage());
+
+		// An admin edit while the image is still uploading
+		assertTrue(imageKit.held.await(10, TimeUnit.SECONDS));
+		item.setPrice("2800");
+		serviceItemService.save(item);
+
+		imageKit.releaseAll();
+		awaitFinished(job);
+
+		ServiceItem patched = serviceItemRepository.findById(job.getServiceId()).orElseThrow();
+		assertEquals(UploadJobDto.Status.DONE, job.getStatus());
+		assertEquals("https://ik.imagekit.test/peacock.jpg", patched.getImage());
+		assertEquals("2800", patched.getPrice());
+		assertEquals("Peacock", patched.getName());
+	}
+
+	@Test
+	void uploadForDeletedArtworkReportsIt() throws Exception {
+		ServiceItem item = new ServiceItem();
+		item.setName("Gone");
+		item.setCategory("craft");
+		item.setPrice("100");
+		Long serviceId = serviceItemRepository.save(item).getServiceId();
+
+		imageKit.hold();
+		UploadJobDto job = uploadJobService.submit(image("gone.jpg"), serviceId);
+		assertTrue(imageKit.held.await(10, TimeUnit.SECONDS));
+		serviceItemService.deleteService(serviceId);
+		imageKit.releaseAll();
+		awaitFinished(job);
+
+		assertEquals(UploadJobDto.Status.DONE, job.getStatus());
+		assertEquals("Artwork " + serviceId + " no longer exists", job.getError());
+	}
+
+	private static MockMultipartFile image(String name) {
+		return new MockMultipartFile("file", name, "image/jpeg", name.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void awaitFinished(UploadJobDto job) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (job.getFinishedAt() == null) {
+			assertTrue(System.currentTimeMillis() < deadline, "job " + job.getFileName() + " did not finish");
+			Thread.sleep(20);
+		}
+	}
+
+	private static long stagedFiles() throws IOException {
+		try (Stream<Path> files = Files.list(stagingDir)) {
+			return files.count();
+		}
+	}
+
+	private static Path createStagingDir() {
+		try {
+			return Files.createTempDirectory("upload-jobs-test");
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Stand-in for the ImageKit upload endpoint: answers 500 while failuresLeft is positive,
+	 * otherwise returns a URL made from the file name. After hold() each request waits until
+	 * releaseAll().
+	 */
+	static final class ImageKitStandIn {
+
+		final AtomicInteger failuresLeft = new AtomicInteger();
+		final List<Long> attemptMillis = new CopyOnWriteArrayList<>();
+		volatile CountDownLatch held = new CountDownLatch(1);
+		private volatile CountDownLatch release = new CountDownLatch(0);
+
+		private final HttpServer server;
+
+		private ImageKitStandIn(HttpServer server) {
+			this.server = server;
+		}
+
+		static ImageKitStandIn start() {
+			try {
+				HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+				ImageKitStandIn standIn = new ImageKitStandIn(server);
+				server.createContext("/upload", exchange -> {
+					try {
+						String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+						standIn.attemptMillis.add(System.currentTimeMillis());
+						standIn.held.countDown();
+						standIn.release.await(30, TimeUnit.SECONDS);
+
+						if (standIn.failuresLeft.getAndDecrement() > 0) {
+							exchange.sendResponseHeaders(500, -1);
+							return;
+						}
+						String fileName = body.replaceAll("(?s).*name=\"fileName\"\r\n\r\n([^\r]*)\r\n.*", "$1");
+						byte[] response = ("{\"url\": \"https://ik.imagekit.test/" + fileName + "\"}")
+								.getBytes(StandardCharsets.UTF_8);
+						exchange.getResponseHeaders().add("Content-Type", "application/json");
+						exchange.sendResponseHeaders(200, response.length);
+						try (OutputStream out = exchange.getResponseBody()) {
+							out.write(response);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						exchange.close();
+					}
+				});
+				server.start();
+				return standIn;
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		String url() {
+			return "http://localhost:" + server.getAddress().getPort() + "/upload";
+		}
+
+		void reset() {
+			failuresLeft.set(0);
+			attemptMillis.clear();
+			held = new CountDownLatch(1);
+			release = new CountDownLatch(0);
+		}
+
+		void hold() {
+			release = new CountDownLatch(1);
+		}
+
+		void releaseAll() {
+			release.countDown();
+		}
+
+		void close() {
+			releaseAll();
+			server.stop(0);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.dipika.kalakriti2.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.FilterChain;
+
+/**
+ * Per-request cost of JwtFilter: a request with a bearer token (verified-token cache on, or
+ * off with cacheEntries = 0, i.e. a full signature check every time) against one without.
+ * tokens is the number of different users cycling through the filter.
+ * Not part of the test run; start it by hand:
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath com.dipika.kalakriti2.service.JwtFilterBenchmark"
+ *
+ * With several request threads (the cache is read without a lock), go through JMH's own main:
+ *
+ *   ... -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtFilterBenchmark -t 8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+	private static final String SECRET = "benchmark-only-jwt-signing-key-0123456789";
+	private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+	@Param({"10000", "0"})
+	private int cacheEntries;
+
+	@Param({"1", "1000"})
+	private int tokens;
+
+	private JwtFilter filter;
+	private String[] authorizationHeaders;
+
+	@Setup
+	public void setUp() {
+		JwtUtil jwtUtil = new JwtUtil(SECRET, cacheEntries);
+		filter = new JwtFilter();
+		ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+
+		authorizationHeaders = new String[tokens];
+		for (int i = 0; i < tokens; i++) {
+			authorizationHeaders[i] = "Bearer " + jwtUtil.generateToken("user" + i + "@example.com", (long) i, "USER");
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Caller {
+		int next;
+	}
+
+	@Benchmark
+	public Object withToken(Caller caller) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/my");
+		request.addHeader("Authorization", authorizationHeaders[caller.next++ % authorizationHeaders.length]);
+		return filter(request);
+	}
+
+	@Benchmark
+	public Object withoutToken() throws Exception {
+		return filter(new MockHttpServletRequest("GET", "/api/services"));
+	}
+
+	private Object filter(MockHttpServletRequest request) throws Exception {
+		try {
+			filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+			return SecurityContextHolder.getContext().getAuthentication();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(JwtFilterBenchmark.class.getSimpleName());
+		if (args.length > 1 && "-prof".equals(args[0])) {
+			options.addProfiler(args[1]);
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,185 @@
+package com.dipika.kalakriti2.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.dipika.kalakriti2.Kalakriti2Application;
+import com.dipika.kalakriti2.entity.ServiceItem;
+import com.dipika.kalakriti2.entity.UserEntity;
+import com.dipika.kalakriti2.repository.ServiceItemRepository;
+import com.dipika.kalakriti2.repository.UserRepository;
+
+/**
+ * Catalog latency while the login endpoint is under a credential-stuffing style load:
+ * 16 threads post wrong passwords for existing accounts (every attempt that gets past the
+ * throttle costs a BCrypt check), one thread reads the catalog. catalogIdle is the same read
+ * without the login load. The login outcomes per second (200 / 401 / 429 / 503) are printed
+ * after each iteration.
+ * attackerIps = 1 is a single client (the IP bucket turns most attempts away), 4096 a botnet
+ * where every attempt reaches the hashing pool.
+ * Not part of the test run; start it by hand:
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath com.dipika.kalakriti2.service.LoginLoadBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class LoginLoadBenchmark {
+
+	private static final int ACCOUNTS = 5_000;
+	private static final int CATALOG_ITEMS = 40;
+
+	@State(Scope.Benchmark)
+	public static class Server {
+
+		@Param({"1", "4096"})
+		int attackerIps;
+
+		ConfigurableApplicationContext context;
+		HttpClient http;
+		String baseUrl;
+
+		final Map<Integer, LongAdder> loginStatuses = new ConcurrentHashMap<>();
+		long iterationStart;
+
+		@Setup(Level.Trial)
+		public void start() {
+			context = new SpringApplicationBuilder(Kalakriti2Application.class)
+					.profiles("test")
+					.properties(
+							"server.port=0",
+							"spring.datasource.url=jdbc:h2:mem:loginload;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,USER",
+							"spring.devtools.restart.enabled=false",
+							"logging.level.root=WARN")
+					.run();
+
+			// One real BCrypt hash shared by every account: only the login checks should cost CPU
+			String hash = context.getBean(PasswordEncoder.class).encode("correct horse battery");
+			List<UserEntity> users = new ArrayList<>();
+			for (int i = 0; i < ACCOUNTS; i++) {
+				UserEntity user = new UserEntity();
+				user.setName("customer" + i);
+				user.setEmail("customer" + i + "@example.com");
+				user.setPassword(hash);
+				users.add(user);
+			}
+			context.getBean(UserRepository.class).saveAll(users);
+
+			List<ServiceItem> items = new ArrayList<>();
+			for (int i = 0; i < CATALOG_ITEMS; i++) {
+				ServiceItem item = new ServiceItem();
+				item.setName("Madhubani painting " + i);
+				item.setCategory(i % 2 == 0 ? "painting" : "craft");
+				item.setPrice(String.valueOf(1500 + i));
+				item.setDescription("Hand painted on handmade paper");
+				items.add(item);
+			}
+			context.getBean(ServiceItemRepository.class).saveAll(items);
+
+			http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+			baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+		}
+
+		@Setup(Level.Iteration)
+		public void resetCounts() {
+			loginStatuses.clear();
+			iterationStart = System.nanoTime();
+		}
+
+		@TearDown(Level.Iteration)
+		public void printCounts() {
+			double seconds = (System.nanoTime() - iterationStart) / 1e9;
+			if (loginStatuses.isEmpty()) {
+				return;
+			}
+			Map<Integer, String> perSecond = new TreeMap<>();
+			loginStatuses.forEach((status, count) -> perSecond.put(status, String.format("%.0f", count.sum() / seconds)));
+			System.out.println("  logins/s by status: " + perSecond);
+		}
+
+		@TearDown(Level.Trial)
+		public void stop() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	@Group("underLoginLoad")
+	@GroupThreads(16)
+	public int login(Server server) throws Exception {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int account = random.nextInt(ACCOUNTS);
+		int ip = random.nextInt(server.attackerIps);
+		HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl + "/api/login"))
+				.header("Content-Type", "application/json")
+				// Sent from loopback, a trusted proxy: this header is the client address
+				.header("X-Forwarded-For", "198.18." + (ip / 256) + "." + (ip % 256))
+				.POST(HttpRequest.BodyPublishers.ofString(
+						"{\"email\":\"customer" + account + "@example.com\",\"password\":\"guess" + random.nextInt() + "\"}"))
+				.build();
+		int status = server.http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+		server.loginStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+		return status;
+	}
+
+	@Benchmark
+	@Group("underLoginLoad")
+	@GroupThreads(1)
+	public int catalog(Server server) throws Exception {
+		return getCatalog(server);
+	}
+
+	@Benchmark
+	public int catalogIdle(Server server) throws Exception {
+		return getCatalog(server);
+	}
+
+	private static int getCatalog(Server server) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl + "/api/services")).GET().build();
+		return server.http.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(LoginLoadBenchmark.class.getSimpleName());
+		if (args.length > 1 && "-prof".equals(args[0])) {
+			options.addProfiler(args[1]);
+		}
+		new Runner(options.build()).run();
+	}
+}
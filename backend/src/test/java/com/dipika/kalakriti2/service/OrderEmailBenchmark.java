@@ -0,0 +1,236 @@
+package com.dipika.kalakriti2.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dipika.kalakriti2.entity.Order;
+import com.dipika.kalakriti2.entity.OrderItem;
+
+/**
+ * Order email rendering: precompiled templates (EmailService + MailTemplateService) against the
+ * String.format builders they replaced (copied below as Legacy).
+ * Not part of the test run; start it by hand:
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath com.dipika.kalakriti2.service.OrderEmailBenchmark"
+ *
+ * Add "-prof gc" after the class name (it is passed on to JMH) to compare allocation per email.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderEmailBenchmark {
+
+	@Param({"1", "10"})
+	private int items;
+
+	private EmailService emailService;
+	private Order order;
+
+	@Setup
+	public void setUp() throws Exception {
+		emailService = new EmailService();
+		ReflectionTestUtils.setField(emailService, "mailTemplateService", new MailTemplateService());
+
+		order = new Order();
+		order.setId(1042L);
+		order.setCustomerName("Asha Patil");
+		order.setAddress("12 MG Road, Pune 411001");
+		order.setPhone("9876543210");
+		order.setPaymentMethod("ONLINE");
+		order.setCreatedAt(LocalDateTime.of(2026, 3, 14, 10, 30));
+		List<OrderItem> orderItems = new ArrayList<>();
+		double total = 0;
+		for (int i = 0; i < items; i++) {
+			OrderItem item = new OrderItem();
+			item.setName("Warli painting " + i);
+			item.setQuantity(1 + i % 3);
+			item.setPrice(1499.0 + i);
+			total += item.getPrice() * item.getQuantity();
+			orderItems.add(item);
+		}
+		order.setItems(orderItems);
+		order.setTotalPrice(total);
+	}
+
+	@Benchmark
+	public String confirmationTemplate() {
+		return emailService.buildOrderConfirmationHtml(order, MailTemplateService.ENGLISH);
+	}
+
+	@Benchmark
+	public String confirmationLegacy() {
+		return Legacy.buildOrderConfirmationHtml(order);
+	}
+
+	@Benchmark
+	public String shippingTemplate() {
+		return emailService.buildShippingUpdateHtml(order, MailTemplateService.ENGLISH);
+	}
+
+	@Benchmark
+	public String shippingLegacy() {
+		return Legacy.buildShippingUpdateHtml(order);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(OrderEmailBenchmark.class.getSimpleName());
+		if (args.length > 1 && "-prof".equals(args[0])) {
+			options.addProfiler(args[1]);
+		}
+		new Runner(options.build()).run();
+	}
+
+	// The builders as they were before the templates (String.format over inline HTML per email)
+	static final class Legacy {
+
+		static String buildOrderConfirmationHtml(Order order) {
+			StringBuilder itemsHtml = new StringBuilder();
+			if (order.getItems() != null) {
+				for (OrderItem item : order.getItems()) {
+					String itemName = "Art Piece";
+					if (item.getName() != null) {
+						itemName = item.getName();
+					}
+
+					itemsHtml.append(String.format("""
+                    <tr>
+                        <td style="padding: 15px; border-bottom: 1px solid #e5e7eb;">
+                            <div style="font-weight: 600; color: #111827; margin-bottom: 4px;">%s</div>
+                            <div style="font-size: 14px; color: #6b7280;">Qty: %d × ₹%.2f</div>
+                        </td>
+                        <td style="padding: 15px; border-bottom: 1px solid #e5e7eb; text-align: right; font-weight: 600;">
+                            ₹%.2f
+                        </td>
+                    </tr>
+						""",
+						itemName,
+						item.getQuantity(),
+						item.getPrice(),
+						item.getPrice() * item.getQuantity()
+					));
+				}
+			}
+
+			String orderDate = "Today";
+			if (order.getCreatedAt() != null) {
+				orderDate = order.getCreatedAt().format(DateTimeFormatter.ofPattern("dd MMM yyyy"));
+			}
+
+			String paymentMethod = "Cash on Delivery";
+			if (order.getPaymentMethod() != null) {
+				if (order.getPaymentMethod().equalsIgnoreCase("cod")) {
+					paymentMethod = "💵 Cash on Delivery";
+				} else if (order.getPaymentMethod().equalsIgnoreCase("ONLINE")) {
+					paymentMethod = "💳 Online Payment";
+				} else {
+					paymentMethod = order.getPaymentMethod();
+				}
+			}
+
+			return String.format("""
+<!DOCTYPE html>
+<html><head><meta charset="UTF-8"><meta name="viewport" content="width=device-width, initial-scale=1.0"></head>
+<body style="margin:0;padding:0;font-family:-apple-system,BlinkMacSystemFont,'Segoe UI',Roboto,sans-serif;background-color:#f3f4f6;">
+<div style="max-width:600px;margin:0 auto;background-color:#fff;">
+<div style="background:linear-gradient(135deg,#7c3aed 0%%,#9333ea 100%%);padding:40px 30px;text-align:center;">
+<h1 style="color:#fff;margin:0;font-size:32px;font-weight:800;"><span style="color:#fb923c;">Kala</span>kriti</h1>
+<p style="color:#e9d5ff;margin:10px 0 0 0;font-size:14px;">Art & Creativity Hub</p></div>
+<div style="padding:40px 30px;text-align:center;">
+<div style="width:80px;height:80px;background-color:#10b981;border-radius:50%%;margin:0 auto 20px;">
+<span style="font-size:40px;color:#fff;line-height:80px;">✓</span></div>
+<h2 style="color:#111827;margin:0 0 10px 0;font-size:28px;font-weight:700;">Order is successfully confirmed</h2>
+<p style="color:#6b7280;margin:0;font-size:16px;">Your order has been successfully placed. Thank you for shopping with us.</p></div>
+<div style="padding:0 30px 30px 30px;">
+<div style="background-color:#f9fafb;border-radius:12px;padding:20px;margin-bottom:30px;">
+<p style="color:#6b7280;margin:0 0 5px 0;font-size:12px;text-transform:uppercase;">Order ID</p>
+<p style="color:#111827;margin:0 0 15px 0;font-size:20px;font-weight:700;">#%s</p>
+<p style="color:#6b7280;margin:0 0 5px 0;font-size:12px;text-transform:uppercase;">Order Date</p>
+<p style="color:#111827;margin:0;font-size:16px;font-weight:600;">%s</p></div>
+<h3 style="color:#111827;margin:0 0 15px 0;font-size:18px;font-weight:700;">Order Items</h3>
+<table style="width:100%%;border-collapse:collapse;margin-bottom:30px;">
+%s
+<tr><td style="padding:20px 15px;text-align:right;font-weight:700;font-size:18px;color:#7c3aed;">Total:</td>
+<td style="padding:20px 15px;text-align:right;font-weight:700;font-size:20px;color:#7c3aed;">₹%.2f</td></tr></table>
+<div style="background-color:#f9fafb;border-radius:12px;padding:20px;margin-bottom:20px;">
+<h4 style="color:#111827;margin:0 0 15px 0;font-size:14px;font-weight:700;text-transform:uppercase;">Delivery Address</h4>
+<p style="color:#374151;margin:0 0 5px 0;font-weight:600;">%s</p>
+<p style="color:#6b7280;margin:0 0 5px 0;">%s</p>
+<p style="color:#6b7280;margin:0;">📞 %s</p></div>
+<div style="background-color:#fef3c7;border-radius:12px;padding:20px;margin-bottom:30px;">
+<p style="color:#92400e;margin:0;font-size:14px;"><strong>Payment Method:</strong> %s</p></div>
+<div style="text-align:center;margin-bottom:30px;">
+<a href="http://localhost:5173/userdashboard" style="display:inline-block;background:linear-gradient(135deg,#7c3aed 0%%,#9333ea 100%%);color:#fff;text-decoration:none;padding:15px 40px;border-radius:10px;font-weight:700;font-size:16px;">View Order Details</a></div>
+<div style="text-align:center;padding:20px 0;border-top:1px solid #e5e7eb;">
+<p style="color:#6b7280;margin:0 0 10px 0;font-size:14px;">Need help? Contact us at</p>
+<p style="color:#7c3aed;margin:0;font-weight:600;">info@kalakriti.com | +91 9657141183</p></div></div>
+<div style="background-color:#f9fafb;padding:30px;text-align:center;border-top:1px solid #e5e7eb;">
+<p style="color:#9ca3af;margin:0 0 10px 0;font-size:12px;">© 2026 Kalakriti. All rights reserved.</p>
+<p style="color:#9ca3af;margin:0;font-size:12px;">Mumbai, India</p></div></div></body></html>
+				""",
+				order.getId(),
+				orderDate,
+				itemsHtml.toString(),
+				order.getTotalPrice(),
+				order.getCustomerName(),
+				order.getAddress(),
+				order.getPhone(),
+				paymentMethod
+			);
+		}
+
+		static String buildShippingUpdateHtml(Order order) {
+			return String.format("""
+<!DOCTYPE html>
+<html><head><meta charset="UTF-8"><meta name="viewport" content="width=device-width,initial-scale=1.0"></head>
+<body style="margin:0;padding:0;font-family:-apple-system,BlinkMacSystemFont,'Segoe UI',Roboto,sans-serif;background-color:#f3f4f6;">
+<div style="max-width:600px;margin:0 auto;background-color:#fff;">
+<div style="background:linear-gradient(135deg,#7c3aed 0%%,#9333ea 100%%);padding:40px 30px;text-align:center;">
+<h1 style="color:#fff;margin:0;font-size:32px;font-weight:800;"><span style="color:#fb923c;">Kala</span>kriti</h1></div>
+<div style="padding:40px 30px;text-align:center;">
+<div style="font-size:60px;margin-bottom:20px;">🚚</div>
+<h2 style="color:#111827;margin:0 0 10px 0;font-size:28px;font-weight:700;">Your Order is On Its Way!</h2>
+<p style="color:#6b7280;margin:0;font-size:16px;">Order #%s has been shipped and will reach you soon.</p></div>
+<div style="padding:0 30px 30px 30px;">
+<div style="background-color:#f9fafb;border-radius:12px;padding:20px;margin-bottom:20px;">
+<h4 style="color:#111827;margin:0 0 15px 0;font-size:14px;font-weight:700;">Delivery Address</h4>
+<p style="color:#374151;margin:0 0 5px 0;font-weight:600;">%s</p>
+<p style="color:#6b7280;margin:0;">%s</p></div>
+<div style="text-align:center;margin:30px 0;">
+<a href="http://localhost:5173/userdashboard" style="display:inline-block;background:linear-gradient(135deg,#7c3aed 0%%,#9333ea 100%%);color:#fff;text-decoration:none;padding:15px 40px;border-radius:10px;font-weight:700;font-size:16px;">Track Order</a></div>
+<div style="text-align:center;padding:20px 0;border-top:1px solid #e5e7eb;">
+<p style="color:#6b7280;margin:0 0 10px 0;font-size:14px;">Questions? Contact us</p>
+<p style="color:#7c3aed;margin:0;font-weight:600;">info@kalakriti.com | +91 9657141183</p></div></div>
+<div style="background-color:#f9fafb;padding:30px;text-align:center;border-top:1px solid #e5e7eb;">
+<p style="color:#9ca3af;margin:0;font-size:12px;">© 2026 Kalakriti. All rights reserved.</p></div></div></body></html>
+				""",
+				order.getId(),
+				order.getCustomerName(),
+				order.getAddress()
+			);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.dipika.kalakriti2.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.dipika.kalakriti2.Kalakriti2Application;
+import com.dipika.kalakriti2.entity.Order;
+
+/**
+ * "My Orders" as the orders table grows from 10k to 1M rows: keyset pages of one customer
+ * (first page, a page 1000 orders deep, the last page) through idx_orders_user_created, and the
+ * customer's full history for comparison. The customer always has CUSTOMER_ORDERS orders; the
+ * rest of the table belongs to other users, so only the pages' independence of the table size
+ * is measured. Seeded straight into an in-memory H2 (MySQL mode) with JDBC batches.
+ * Not part of the test run; start it by hand:
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath com.dipika.kalakriti2.service.OrderHistoryBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class OrderHistoryBenchmark {
+
+	private static final long CUSTOMER_ID = 7L;
+	private static final int CUSTOMER_ORDERS = 2_000;
+	private static final int OTHER_USERS = 50_000;
+	private static final int PAGE_SIZE = 20;
+	private static final int DEEP_PAGE_OFFSET = 1_000;
+	private static final int BATCH_SIZE = 5_000;
+
+	@Param({"10000", "100000", "1000000"})
+	private int tableRows;
+
+	private ConfigurableApplicationContext context;
+	private OrderService orderService;
+
+	private LocalDateTime deepCursorCreatedAt;
+	private Long deepCursorId;
+	private LocalDateTime lastCursorCreatedAt;
+	private Long lastCursorId;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = new SpringApplicationBuilder(Kalakriti2Application.class)
+				.profiles("test")
+				.properties(
+						"server.port=0",
+						"spring.datasource.url=jdbc:h2:mem:orderhistory" + tableRows
+								+ ";DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,USER",
+						"spring.devtools.restart.enabled=false",
+						"logging.level.root=WARN")
+				.run();
+		orderService = context.getBean(OrderService.class);
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+		// The customer's orders are spread evenly through the table, one second apart overall
+		Random random = new Random(42);
+		LocalDateTime start = LocalDateTime.of(2023, 1, 1, 0, 0);
+		int customerEvery = tableRows / CUSTOMER_ORDERS;
+		List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+		for (int i = 0; i < tableRows; i++) {
+			long userId = i % customerEvery == 0 ? CUSTOMER_ID : 1_000 + random.nextInt(OTHER_USERS);
+			batch.add(new Object[] {userId, "Customer " + userId, 1500.0 + i % 500, "PLACED", "PAID",
+					Timestamp.valueOf(start.plusSeconds(i))});
+			if (batch.size() == BATCH_SIZE || i == tableRows - 1) {
+				jdbcTemplate.batchUpdate("INSERT INTO orders (user_id, customer_name, total_price, status, "
+						+ "payment_status, created_at) VALUES (?, ?, ?, ?, ?, ?)", batch);
+				batch.clear();
+			}
+		}
+		jdbcTemplate.execute("ANALYZE");
+
+		Map<String, Object> deep = cursorAt(jdbcTemplate, DEEP_PAGE_OFFSET);
+		deepCursorCreatedAt = ((Timestamp) deep.get("created_at")).toLocalDateTime();
+		deepCursorId = ((Number) deep.get("id")).longValue();
+		Map<String, Object> last = cursorAt(jdbcTemplate, CUSTOMER_ORDERS - PAGE_SIZE);
+		lastCursorCreatedAt = ((Timestamp) last.get("created_at")).toLocalDateTime();
+		lastCursorId = ((Number) last.get("id")).longValue();
+
+		if (orderService.getOrdersByUserId(CUSTOMER_ID).size() != CUSTOMER_ORDERS
+				|| orderService.getOrdersByUserId(CUSTOMER_ID, PAGE_SIZE, lastCursorCreatedAt, lastCursorId)
+						.size() != PAGE_SIZE - 1) {
+			throw new IllegalStateException("Seeded order history is not what the benchmark expects");
+		}
+	}
+
+	// (created_at, id) of the customer's order at this position, newest first
+	private static Map<String, Object> cursorAt(JdbcTemplate jdbcTemplate, int offset) {
+		return jdbcTemplate.queryForMap("SELECT created_at, id FROM orders WHERE user_id = ? "
+				+ "ORDER BY created_at DESC, id DESC LIMIT 1 OFFSET ?", CUSTOMER_ID, offset);
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<Order> firstPage() {
+		return orderService.getOrdersByUserId(CUSTOMER_ID, PAGE_SIZE, null, null);
+	}
+
+	@Benchmark
+	public List<Order> deepPage() {
+		return orderService.getOrdersByUserId(CUSTOMER_ID, PAGE_SIZE, deepCursorCreatedAt, deepCursorId);
+	}
+
+	@Benchmark
+	public List<Order> lastPage() {
+		return orderService.getOrdersByUserId(CUSTOMER_ID, PAGE_SIZE, lastCursorCreatedAt, lastCursorId);
+	}
+
+	@Benchmark
+	public List<Order> fullHistory() {
+		return orderService.getOrdersByUserId(CUSTOMER_ID);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(OrderHistoryBenchmark.class.getSimpleName());
+		if (args.length > 1 && "-prof".equals(args[0])) {
+			options.addProfiler(args[1]);
+		}
+		new Runner(options.build()).run();
+	}
+}
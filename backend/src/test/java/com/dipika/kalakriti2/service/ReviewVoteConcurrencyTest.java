@@ -0,0 +1,68 @@
+package com.dipika.kalakriti2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.dipika.kalakriti2.entity.Review;
+import com.dipika.kalakriti2.repository.ReviewRepository;
+
+// Helpful / not helpful votes are single atomic UPDATEs: no vote may be lost under contention
+@SpringBootTest
+@ActiveProfiles("test")
+class ReviewVoteConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int VOTES = 1000;
+
+	@Autowired
+	private ReviewService reviewService;
+
+	@Autowired
+	private ReviewRepository reviewRepository;
+
+	@Test
+	void concurrentVotesAreAllCounted() throws Exception {
+		Review review = reviewRepository.save(new Review(1L, 501L, "voter", 5, "nice"));
+		Long reviewId = review.getId();
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> votes = new ArrayList<>();
+		try {
+			for (int i = 0; i < VOTES; i++) {
+				boolean helpful = i % 4 != 0;
+				votes.add(pool.submit(() -> {
+					start.await();
+					return helpful ? reviewService.markHelpful(reviewId) : reviewService.markNotHelpful(reviewId);
+				}));
+			}
+			start.countDown();
+			for (Future<?> vote : votes) {
+				vote.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		Review counted = reviewRepository.findById(reviewId).orElseThrow();
+		assertEquals(VOTES * 3 / 4, counted.getHelpfulCount());
+		assertEquals(VOTES / 4, counted.getNotHelpfulCount());
+	}
+
+	@Test
+	void voteOnMissingReviewIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> reviewService.markHelpful(Long.MAX_VALUE));
+	}
+}
@@ -0,0 +1,166 @@
+package com.dipika.kalakriti2.service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.dipika.kalakriti2.Kalakriti2Application;
+
+/**
+ * Throughput of serving an uploaded image: UploadsController (/uploads/**, sendfile above 48KB,
+ * cached ETags) against the Spring resource handler it replaced, mapped for the run under
+ * /api/legacy-uploads/** (an open path, so both go through the same security filters).
+ * A full GET and a revalidation (If-None-Match / If-Modified-Since with the values from the
+ * first response, answered with 304) for each, over real HTTP on a random port.
+ * Not part of the test run; start it by hand:
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath com.dipika.kalakriti2.service.UploadsServingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class UploadsServingBenchmark {
+
+	private static final Path BENCHMARK_DIR = Paths.get(System.getProperty("user.dir"), "uploads", "benchmark");
+
+	@Param({"8192", "1048576"})
+	private int fileSize;
+
+	private ConfigurableApplicationContext context;
+	private HttpClient http;
+	private Path file;
+
+	private URI controllerUri;
+	private URI resourceHandlerUri;
+	private String controllerEtag;
+	private String resourceHandlerLastModified;
+
+	/**
+	 * The handler UploadsController replaced. Registered as a source of the benchmark's
+	 * application only (no @Configuration, so component scanning never picks it up).
+	 */
+	public static class LegacyResourceHandler implements WebMvcConfigurer {
+		@Override
+		public void addResourceHandlers(ResourceHandlerRegistry registry) {
+			registry.addResourceHandler("/api/legacy-uploads/**")
+					.addResourceLocations("file:uploads/");
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void start() throws Exception {
+		// Random JPEG-looking content under its own hash, like the contact blob store writes it
+		byte[] content = new byte[fileSize];
+		new Random(42).nextBytes(content);
+		content[0] = (byte) 0xFF;
+		content[1] = (byte) 0xD8;
+		content[2] = (byte) 0xFF;
+		String name = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)) + ".jpg";
+		Files.createDirectories(BENCHMARK_DIR);
+		file = Files.write(BENCHMARK_DIR.resolve(name), content);
+
+		context = new SpringApplicationBuilder(Kalakriti2Application.class, LegacyResourceHandler.class)
+				.profiles("test")
+				.properties(
+						"server.port=0",
+						"spring.datasource.url=jdbc:h2:mem:uploadsserving;DB_CLOSE_ON_EXIT=FALSE;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,USER",
+						"spring.devtools.restart.enabled=false",
+						"logging.level.root=WARN")
+				.run();
+
+		http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+		controllerUri = URI.create(baseUrl + "/uploads/benchmark/" + name);
+		resourceHandlerUri = URI.create(baseUrl + "/api/legacy-uploads/benchmark/" + name);
+
+		HttpResponse<byte[]> controller = fetch(controllerUri);
+		HttpResponse<byte[]> resourceHandler = fetch(resourceHandlerUri);
+		if (controller.body().length != fileSize || resourceHandler.body().length != fileSize) {
+			throw new IllegalStateException("Benchmark file not served: " + controller.statusCode()
+					+ " / " + resourceHandler.statusCode());
+		}
+		controllerEtag = controller.headers().firstValue("ETag").orElseThrow();
+		resourceHandlerLastModified = resourceHandler.headers().firstValue("Last-Modified").orElseThrow();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() throws Exception {
+		context.close();
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(BENCHMARK_DIR);
+	}
+
+	@Benchmark
+	public int controller() throws Exception {
+		return getDiscarding(HttpRequest.newBuilder(controllerUri).GET().build());
+	}
+
+	@Benchmark
+	public int resourceHandler() throws Exception {
+		return getDiscarding(HttpRequest.newBuilder(resourceHandlerUri).GET().build());
+	}
+
+	@Benchmark
+	public int controllerRevalidate() throws Exception {
+		return getDiscarding(HttpRequest.newBuilder(controllerUri)
+				.header("If-None-Match", controllerEtag).GET().build());
+	}
+
+	@Benchmark
+	public int resourceHandlerRevalidate() throws Exception {
+		return getDiscarding(HttpRequest.newBuilder(resourceHandlerUri)
+				.header("If-Modified-Since", resourceHandlerLastModified).GET().build());
+	}
+
+	private int getDiscarding(HttpRequest request) throws Exception {
+		return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	private HttpResponse<byte[]> fetch(URI uri) throws Exception {
+		return http.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		OptionsBuilder options = new OptionsBuilder();
+		options.include(UploadsServingBenchmark.class.getSimpleName());
+		if (args.length > 1 && "-prof".equals(args[0])) {
+			options.addProfiler(args[1]);
+		}
+		new Runner(options.build()).run();
+	}
+}
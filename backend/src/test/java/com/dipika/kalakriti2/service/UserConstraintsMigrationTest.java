@@ -0,0 +1,100 @@
+package com.dipika.kalakriti2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+// A users table from before the unique constraints: duplicate names are renamed and the constraints
+// added, duplicate emails stop the migration
+@SpringBootTest
+@ActiveProfiles("test")
+class UserConstraintsMigrationTest {
+
+	@DynamicPropertySource
+	static void databaseProperties(DynamicPropertyRegistry registry) {
+		// Own database: the tests drop the constraints other tests rely on. Case-insensitive text
+		// columns, like MySQL's default collation, so duplicates are compared the way it does
+		registry.add("spring.datasource.url",
+				() -> "jdbc:h2:mem:userconstraints;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=VALUE,USER");
+	}
+
+	@Autowired
+	private UserConstraintsMigration migration;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void dropConstraints() {
+		jdbcTemplate.update("DELETE FROM users");
+		jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT uk_users_email");
+		jdbcTemplate.execute("ALTER TABLE users DROP CONSTRAINT uk_users_name");
+	}
+
+	@AfterEach
+	void restoreConstraints() {
+		jdbcTemplate.update("DELETE FROM users");
+		migration.migrate();
+	}
+
+	@Test
+	void duplicateNamesAreRenamedAndConstraintsAdded() {
+		long first = insert("Asha", "asha@example.com");
+		long second = insert("asha", "asha.p@example.com");
+		long third = insert("Asha", "asha.k@example.com");
+		long other = insert("Ravi", "ravi@example.com");
+
+		migration.migrate();
+
+		assertEquals("Asha", nameOf(first));
+		assertEquals("asha " + second, nameOf(second));
+		assertEquals("Asha " + third, nameOf(third));
+		assertEquals("Ravi", nameOf(other));
+
+		assertThrows(DataIntegrityViolationException.class, () -> insert("Ravi", "ravi2@example.com"));
+		assertThrows(DataIntegrityViolationException.class, () -> insert("Ravi K", "ravi@example.com"));
+
+		// Already in place: nothing to do
+		migration.migrate();
+		assertEquals("Asha", nameOf(first));
+	}
+
+	@Test
+	void duplicateEmailsFailTheMigration() {
+		insert("Meera", "meera@example.com");
+		long duplicate = insert("Meera S", "Meera@example.com");
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> migration.migrate());
+		assertTrue(e.getMessage().toLowerCase(Locale.ROOT).contains("meera@example.com"));
+
+		// Nothing was changed or added
+		insert("Meera S", "meera.s@example.com");
+
+		// Once the accounts are merged, the migration goes through
+		jdbcTemplate.update("DELETE FROM users WHERE id = ?", duplicate);
+		migration.migrate();
+		assertThrows(DataIntegrityViolationException.class, () -> insert("Meera T", "meera@example.com"));
+	}
+
+	private long insert(String name, String email) {
+		jdbcTemplate.update("INSERT INTO users (name, email, password, role) VALUES (?, ?, '', 'USER')", name, email);
+		return jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+	}
+
+	private String nameOf(long id) {
+		return jdbcTemplate.queryForObject("SELECT name FROM users WHERE id = ?", String.class, id);
+	}
+}
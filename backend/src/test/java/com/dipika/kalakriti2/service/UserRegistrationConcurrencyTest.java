@@ -0,0 +1,123 @@
+package com.dipika.kalakriti2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.dipika.kalakriti2.entity.UserEntity;
+import com.dipika.kalakriti2.repository.UserRepository;
+
+// Concurrent sign ups with colliding names and emails: the unique constraints let exactly one through
+@SpringBootTest
+@ActiveProfiles("test")
+class UserRegistrationConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int SIGNUPS = 400;
+	private static final int NAMES = 20;
+
+	@Autowired
+	private UserRegistrationService registrationService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void collidingNamesGetOneAccountEach() throws Exception {
+		Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+		runConcurrently(SIGNUPS, i -> () -> {
+			UserEntity user = newUser("load-artist-" + (i % NAMES), "load" + i + "@example.com");
+			try {
+				registrationService.register(user);
+				count(outcomes, "created");
+			} catch (IllegalArgumentException e) {
+				count(outcomes, e.getMessage());
+			}
+			return null;
+		});
+
+		assertEquals(NAMES, outcomes.get("created").get());
+		assertEquals(SIGNUPS - NAMES, outcomes.get("Username already exists").get());
+		assertEquals(2, outcomes.size());
+		for (int n = 0; n < NAMES; n++) {
+			assertEquals(true, userRepository.existsByName("load-artist-" + n));
+		}
+	}
+
+	@Test
+	void collidingEmailsGetOneAccount() throws Exception {
+		Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+		runConcurrently(THREADS * 4, i -> () -> {
+			try {
+				registrationService.register(newUser("same-email-" + i, "same@example.com"));
+				count(outcomes, "created");
+			} catch (IllegalArgumentException e) {
+				count(outcomes, e.getMessage());
+			}
+			return null;
+		});
+
+		assertEquals(1, outcomes.get("created").get());
+		assertEquals(THREADS * 4 - 1, outcomes.get("Email already exists").get());
+	}
+
+	@Test
+	void concurrentFirstOAuthSignInsShareOneAccount() throws Exception {
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		runConcurrently(THREADS * 2, i -> () -> {
+			ids.add(registrationService.findOrCreateOAuthUser("google@example.com", "Google Artist").getId());
+			return null;
+		});
+
+		assertEquals(1, ids.size());
+		assertEquals(ids.iterator().next(), userRepository.findByEmail("google@example.com").orElseThrow().getId());
+	}
+
+	private void runConcurrently(int tasks, java.util.function.IntFunction<Callable<Void>> task) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < tasks; i++) {
+				Callable<Void> work = task.apply(i);
+				futures.add(pool.submit(() -> {
+					start.await();
+					return work.call();
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static UserEntity newUser(String name, String email) {
+		UserEntity user = new UserEntity();
+		user.setName(name);
+		user.setEmail(email);
+		user.setPassword("{noop}not-used");
+		return user;
+	}
+
+	private static void count(Map<String, AtomicInteger> outcomes, String outcome) {
+		outcomes.computeIfAbsent(outcome, k -> new AtomicInteger()).incrementAndGet();
+	}
+}
@@ -0,0 +1,270 @@
+package com.dipika.kalakriti2.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// 50MB uploads against a local stand-in for the ImageKit upload API: the file is streamed, so the
+// live heap in the middle of an upload stays where it was before it started
+class UploadToCloudTest {
+
+	private static final int FILE_SIZE = 50 * 1024 * 1024;
+
+	// Allowed growth of the live heap during an upload (buffers in flight, not the file)
+	private static final long MAX_HEAP_GROWTH = 8 * 1024 * 1024;
+
+	private StubImageKit imageKit;
+	private UploadToCloud uploadToCloud;
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	void start() throws IOException {
+		imageKit = StubImageKit.start();
+		uploadToCloud = new UploadToCloud();
+		ReflectionTestUtils.setField(uploadToCloud, "privateKey", "private_test");
+		ReflectionTestUtils.setField(uploadToCloud, "uploadUrl", imageKit.url());
+	}
+
+	@AfterEach
+	void stop() {
+		imageKit.close();
+	}
+
+	@Test
+	void multipartFileIsStreamedWithFlatHeap() throws Exception {
+		// Content generated while it is read: only a streaming upload can send it without holding 50MB
+		MultipartFile file = new MockMultipartFile("file", "mural.jpg", "image/jpeg", new byte[0]) {
+			@Override
+			public long getSize() {
+				return FILE_SIZE;
+			}
+
+			@Override
+			public boolean isEmpty() {
+				return false;
+			}
+
+			@Override
+			public byte[] getBytes() {
+				throw new AssertionError("the upload must not load the whole file");
+			}
+
+			@Override
+			public InputStream getInputStream() {
+				return new PatternInputStream(FILE_SIZE);
+			}
+		};
+
+		long growth = uploadMeasuringHeap(() -> uploadToCloud.uploadToCloud(file));
+
+		assertEquals("https://ik.imagekit.test/haircraft/mural.jpg", imageKit.returnedUrl);
+		assertEquals("Basic " + Base64.getEncoder().encodeToString("private_test:".getBytes(StandardCharsets.UTF_8)),
+				imageKit.authorization);
+		assertEquals(FILE_SIZE, imageKit.fileBytes);
+		assertArrayEquals(sha256(new PatternInputStream(FILE_SIZE)), imageKit.fileSha256);
+		assertTrue(growth < MAX_HEAP_GROWTH, "live heap grew by " + growth + " bytes during the upload");
+	}
+
+	@Test
+	void stagedFileIsStreamedWithFlatHeap() throws Exception {
+		Path staged = tempDir.resolve("staged.bin");
+		try (InputStream in = new PatternInputStream(FILE_SIZE)) {
+			Files.copy(in, staged);
+		}
+
+		long growth = uploadMeasuringHeap(() -> uploadToCloud.uploadToCloud(staged, "warli.png", "image/png"));
+
+		assertEquals("https://ik.imagekit.test/haircraft/warli.png", imageKit.returnedUrl);
+		assertEquals("image/png", imageKit.fileContentType);
+		assertEquals(FILE_SIZE, imageKit.fileBytes);
+		assertArrayEquals(sha256(new PatternInputStream(FILE_SIZE)), imageKit.fileSha256);
+		assertTrue(growth < MAX_HEAP_GROWTH, "live heap grew by " + growth + " bytes during the upload");
+	}
+
+	// Live heap halfway through the upload (the stub holds the request there) minus before it
+	private long uploadMeasuringHeap(Supplier<String> upload) throws Exception {
+		long before = liveHeap();
+		CompletableFuture<String> result = CompletableFuture.supplyAsync(upload);
+		assertTrue(imageKit.halfway.await(60, TimeUnit.SECONDS), "upload did not reach the stub");
+		long during = liveHeap();
+		imageKit.resume.countDown();
+		String url = result.get(60, TimeUnit.SECONDS);
+		assertEquals(imageKit.returnedUrl, url);
+		return during - before;
+	}
+
+	private static long liveHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static byte[] sha256(InputStream in) throws Exception {
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		byte[] buffer = new byte[64 * 1024];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			digest.update(buffer, 0, read);
+		}
+		return digest.digest();
+	}
+
+	// Deterministic bytes, generated on the fly
+	static final class PatternInputStream extends InputStream {
+
+		private final long size;
+		private long position;
+
+		PatternInputStream(long size) {
+			this.size = size;
+		}
+
+		@Override
+		public int read() {
+			return position < size ? (int) (position++ * 31 % 251) : -1;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) {
+			if (position >= size) {
+				return -1;
+			}
+			int count = (int) Math.min(length, size - position);
+			for (int i = 0; i < count; i++) {
+				buffer[offset + i] = (byte) (position++ * 31 % 251);
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Stand-in for the ImageKit upload endpoint. Reads the multipart body as a stream, hashes the
+	 * file part, stops halfway until resume is counted down, and answers with the file's URL.
+	 */
+	static final class StubImageKit {
+
+		final CountDownLatch halfway = new CountDownLatch(1);
+		final CountDownLatch resume = new CountDownLatch(1);
+
+		volatile String authorization;
+		volatile String fileContentType;
+		volatile long fileBytes;
+		volatile byte[] fileSha256;
+		volatile String returnedUrl;
+
+		private final HttpServer server;
+
+		private StubImageKit(HttpServer server) {
+			this.server = server;
+		}
+
+		static StubImageKit start() throws IOException {
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			StubImageKit stub = new StubImageKit(server);
+			server.createContext("/api/v1/files/upload", exchange -> {
+				try {
+					stub.handle(exchange);
+				} catch (Exception e) {
+					exchange.sendResponseHeaders(500, -1);
+				} finally {
+					exchange.close();
+				}
+			});
+			server.start();
+			return stub;
+		}
+
+		String url() {
+			return "http://localhost:" + server.getAddress().getPort() + "/api/v1/files/upload";
+		}
+
+		void close() {
+			resume.countDown();
+			server.stop(0);
+		}
+
+		private void handle(HttpExchange exchange) throws Exception {
+			authorization = exchange.getRequestHeaders().getFirst("Authorization");
+			String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+			String boundary = contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+			long contentLength = Long.parseLong(exchange.getRequestHeaders().getFirst("Content-Length"));
+			byte[] epilogue = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+			InputStream body = exchange.getRequestBody();
+
+			// The text parts and the file part's headers come first and are small
+			byte[] head = new byte[4096];
+			int headLength = body.readNBytes(head, 0, head.length);
+			String headText = new String(head, 0, headLength, StandardCharsets.ISO_8859_1);
+			int fileHeaders = headText.indexOf("name=\"file\"");
+			int fileStart = headText.indexOf("\r\n\r\n", fileHeaders) + 4;
+			String fileName = headText.replaceAll("(?s).*name=\"fileName\"\r\n\r\n([^\r]*)\r\n.*", "$1");
+			String folder = headText.replaceAll("(?s).*name=\"folder\"\r\n\r\n([^\r]*)\r\n.*", "$1");
+			fileContentType = headText.substring(headText.indexOf("Content-Type: ", fileHeaders) + 14,
+					headText.indexOf("\r\n", headText.indexOf("Content-Type: ", fileHeaders)));
+
+			long fileLength = contentLength - fileStart - epilogue.length;
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(head, fileStart, headLength - fileStart);
+			long received = headLength - fileStart;
+
+			byte[] buffer = new byte[64 * 1024];
+			while (received < fileLength) {
+				int read = body.read(buffer, 0, (int) Math.min(buffer.length, fileLength - received));
+				if (read == -1) {
+					throw new IOException("body ended after " + received + " file bytes");
+				}
+				digest.update(buffer, 0, read);
+				received += read;
+				if (received >= fileLength / 2 && halfway.getCount() > 0) {
+					halfway.countDown();
+					resume.await(60, TimeUnit.SECONDS);
+				}
+			}
+			if (!Arrays.equals(body.readAllBytes(), epilogue)) {
+				throw new IOException("missing closing boundary");
+			}
+
+			fileBytes = received;
+			fileSha256 = digest.digest();
+			returnedUrl = "https://ik.imagekit.test/" + folder + "/" + fileName;
+
+			byte[] response = ("{\"url\": \"" + returnedUrl + "\"}").getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(response);
+			}
+		}
+	}
+}
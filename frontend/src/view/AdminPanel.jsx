@@ -440,18 +440,33 @@ const ManageServices = () => {
 };
 
 /* ================= ORDERS ================= */
+const ORDERS_PAGE_SIZE = 50;
+
 const Orders = () => {
   const [orders, setOrders] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [hasMore, setHasMore] = useState(false);
 
   useEffect(() => {
     fetchOrders();
   }, []);
 
+  // /orders/admin is keyset paged: the next page starts after the last order we have
+  const fetchPage = async (after) => {
+    const params = { size: ORDERS_PAGE_SIZE };
+    if (after) {
+      params.cursorId = after.id;
+      if (after.createdAt) params.cursorCreatedAt = after.createdAt;
+    }
+    const res = await api.get("/orders/admin", { params });
+    setHasMore(res.data.length === ORDERS_PAGE_SIZE);
+    return res.data;
+  };
+
   const fetchOrders = async () => {
     try {
-      const res = await api.get("/orders/admin");
-      setOrders(res.data);
+      setOrders(await fetchPage(null));
     } catch (err) {
       console.error("Order fetch error:", err);
       toast.error("Could not fetch orders.");
@@ -460,11 +475,25 @@ const Orders = () => {
     }
   };
 
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const next = await fetchPage(orders[orders.length - 1]);
+      setOrders((prev) => [...prev, ...next]);
+    } catch (err) {
+      console.error("Order fetch error:", err);
+      toast.error("Could not fetch more orders.");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const updateStatus = async (id, status) => {
     try {
-      await api.put(`/orders/admin/${id}/status`, null, { params: { status } });
+      const res = await api.put(`/orders/admin/${id}/status`, null, { params: { status } });
       toast.success(`Order #${id} marked as ${status}`);
-      fetchOrders();
+      // Update the row in place so the pages loaded so far stay
+      setOrders((prev) => prev.map((o) => ((o.orderId || o.id) === id ? { ...o, ...res.data } : o)));
     } catch (err) {
       toast.error("Status update failed");
     }
@@ -585,6 +614,17 @@ const Orders = () => {
             </tbody>
           </table>
         </div>
+        {hasMore && (
+          <div className="p-5 border-t border-gray-100 text-center">
+            <button
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-5 py-2 bg-white border border-purple-200 text-purple-600 rounded-lg text-sm font-bold hover:bg-purple-50 transition disabled:opacity-50"
+            >
+              {loadingMore ? "Loading..." : "Load more orders"}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -93,7 +93,10 @@ const UserDashboard = () => {
     if (!storedEmail) return;
 
     try {
-      const res = await fetch(`${API_BASE_URL}/api/admin/my-commissions?email=${storedEmail}`);
+      // The backend takes the email from the login token
+      const res = await fetch(`${API_BASE_URL}/api/admin/my-commissions`, {
+        headers: { Authorization: `Bearer ${localStorage.getItem("token")}` },
+      });
       if (!res.ok) throw new Error("Failed to fetch commissions");
       const data = await res.json();
       setCommissions(data.sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt)));